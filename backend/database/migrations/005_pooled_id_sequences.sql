@@ -0,0 +1,15 @@
+-- Switch id sequences to pooled allocation (allocationSize = 50 in the entities)
+-- Hibernate reserves 50 ids per nextval, which lets it batch INSERTs.
+-- Each sequence is moved past the current max id so no reserved block overlaps existing rows.
+
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+SELECT setval('products_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM products));
+
+ALTER SEQUENCE customers_id_seq INCREMENT BY 50;
+SELECT setval('customers_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM customers));
+
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+SELECT setval('orders_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM orders));
+
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+SELECT setval('order_items_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_items));
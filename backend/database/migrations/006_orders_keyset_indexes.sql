@@ -0,0 +1,4 @@
+-- Indexes backing keyset pagination of GET /api/orders/page and /api/orders/stream
+-- Order is (order_date DESC, id DESC), optionally filtered by status.
+CREATE INDEX IF NOT EXISTS idx_orders_order_date_id ON orders(order_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_order_date_id ON orders(status, order_date DESC, id DESC);
@@ -0,0 +1,22 @@
+-- Denormalized order read model maintained by OrderService
+CREATE TABLE IF NOT EXISTS order_summary (
+    id BIGINT PRIMARY KEY REFERENCES orders(id) ON DELETE CASCADE,
+    order_id VARCHAR(255) UNIQUE NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    item_count INTEGER NOT NULL,
+    total NUMERIC(10, 2) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    order_date TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_summary_order_date_id ON order_summary(order_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_order_summary_status_order_date_id ON order_summary(status, order_date DESC, id DESC);
+
+-- Backfill from existing orders
+INSERT INTO order_summary (id, order_id, customer_name, item_count, total, status, order_date)
+SELECT o.id, o.order_id, c.first_name || ' ' || c.last_name,
+       COALESCE((SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.order_id = o.id), 0),
+       o.total, o.status, o.order_date
+FROM orders o
+JOIN customers c ON c.id = o.customer_id
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,13 @@
+-- Durable store for Idempotency-Key replays on POST /api/orders
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    response_status INTEGER,
+    response_body TEXT,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,29 @@
+-- Full-text and trigram search for nepkart.search.backend=postgres
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Maintained by trigger because unaccent() is not immutable and cannot back a generated column
+CREATE OR REPLACE FUNCTION products_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('simple', unaccent(coalesce(NEW.name, ''))), 'A') ||
+        setweight(to_tsvector('simple', unaccent(regexp_replace(coalesce(NEW.sku, ''), '[^[:alnum:]]+', ' ', 'g'))), 'A') ||
+        setweight(to_tsvector('simple', unaccent(coalesce(NEW.category, ''))), 'B') ||
+        setweight(to_tsvector('simple', unaccent(coalesce(NEW.origin, ''))), 'C') ||
+        setweight(to_tsvector('simple', unaccent(coalesce(NEW.description, ''))), 'D');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_products_search_vector ON products;
+CREATE TRIGGER trg_products_search_vector
+    BEFORE INSERT OR UPDATE OF name, sku, category, origin, description ON products
+    FOR EACH ROW EXECUTE FUNCTION products_search_vector_update();
+
+-- Backfill existing rows through the trigger
+UPDATE products SET name = name;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING GIN (name gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Indexes for category/origin listings and facet rebuilds
+-- findByCategory and the paged ?category= listing compare category by equality.
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products(category, id);
+CREATE INDEX IF NOT EXISTS idx_products_origin ON products(origin);
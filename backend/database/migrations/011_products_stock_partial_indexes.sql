@@ -0,0 +1,5 @@
+-- Partial indexes for the low-stock and out-of-stock queries used before the stock
+-- alert monitor is seeded. Only the few rows matching each predicate are indexed,
+-- so the cold-start queries no longer scan the whole table.
+CREATE INDEX IF NOT EXISTS idx_products_out_of_stock ON products(id) WHERE stock = 0;
+CREATE INDEX IF NOT EXISTS idx_products_low_stock ON products(id) WHERE stock > 0 AND stock <= low_stock_threshold;
@@ -0,0 +1,40 @@
+-- Checkout resolves customers by lower-cased email (CustomerResolver), and the upsert
+-- conflicts on lower(email). Fold customers whose emails differ only in case onto the
+-- oldest row, store emails lower-cased and move the unique constraint to lower(email).
+UPDATE orders o
+SET customer_id = d.keep_id
+FROM (SELECT id, MIN(id) OVER (PARTITION BY lower(trim(email))) AS keep_id FROM customers) d
+WHERE o.customer_id = d.id AND d.id <> d.keep_id;
+
+DELETE FROM customers c
+USING (SELECT id, MIN(id) OVER (PARTITION BY lower(trim(email))) AS keep_id FROM customers) d
+WHERE c.id = d.id AND d.id <> d.keep_id;
+
+UPDATE customers SET email = lower(trim(email)) WHERE email <> lower(trim(email));
+
+-- The plain unique constraint is named customers_email_key by the setup script, but
+-- Hibernate-created schemas use generated names, so drop whichever covers email alone
+DO $$
+DECLARE
+    con RECORD;
+BEGIN
+    FOR con IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'customers'::regclass
+          AND contype = 'u'
+          AND conkey = ARRAY[(SELECT attnum FROM pg_attribute
+                              WHERE attrelid = 'customers'::regclass AND attname = 'email')]
+    LOOP
+        EXECUTE format('ALTER TABLE customers DROP CONSTRAINT %I', con.conname);
+    END LOOP;
+END $$;
+
+DROP INDEX IF EXISTS idx_customers_email;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_customers_email_lower ON customers(lower(email));
+
+-- Repair summaries written while the upsert returned null names
+UPDATE order_summary s
+SET customer_name = c.first_name || ' ' || c.last_name
+FROM orders o
+JOIN customers c ON c.id = o.customer_id
+WHERE s.id = o.id AND s.customer_name = 'null null';
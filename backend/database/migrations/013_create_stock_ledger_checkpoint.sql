@@ -0,0 +1,10 @@
+-- Last stock ledger journal segment applied to products.stock (nepkart.inventory.engine=ledger).
+-- StockLedger advances it in the same transaction as the segment's stock deltas and skips
+-- segments at or below it when replaying journals after a crash.
+CREATE TABLE IF NOT EXISTS stock_ledger_checkpoint (
+    id INTEGER PRIMARY KEY,
+    applied_segment BIGINT NOT NULL
+);
+
+INSERT INTO stock_ledger_checkpoint (id, applied_segment) VALUES (1, 0)
+ON CONFLICT (id) DO NOTHING;
@@ -32,7 +32,7 @@ CREATE TABLE IF NOT EXISTS customers (
     id BIGSERIAL PRIMARY KEY,
     first_name VARCHAR(255) NOT NULL,
     last_name VARCHAR(255) NOT NULL,
-    email VARCHAR(255) UNIQUE NOT NULL,
+    email VARCHAR(255) NOT NULL,
     phone VARCHAR(50) NOT NULL,
     address VARCHAR(500) NOT NULL,
     city VARCHAR(100) NOT NULL,
@@ -73,12 +73,19 @@ CREATE TABLE IF NOT EXISTS order_items (
 -- ============================================
 CREATE INDEX IF NOT EXISTS idx_products_category ON products(category);
 CREATE INDEX IF NOT EXISTS idx_products_sku ON products(sku);
-CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
+-- Emails are stored lower-cased and unique case-insensitively (CustomerResolver)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_customers_email_lower ON customers(lower(email));
 CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX IF NOT EXISTS idx_orders_order_id ON orders(order_id);
 CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
 CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);
 
+-- Pooled id allocation (must match allocationSize in the entities)
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+
 -- ============================================
 -- Insert Sample Data
 -- ============================================
@@ -2,8 +2,10 @@ package com.nepkart;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NepkartApplication {
     public static void main(String[] args) {
         SpringApplication.run(NepkartApplication.class, args);
@@ -7,6 +7,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -25,7 +26,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product1.setDescription("Authentic Nepali instant noodles loved by millions.");
             product1.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product1);
             
             Product product2 = new Product(
                 "NEP-FOOD-002", "Churpi", "Food",
@@ -34,7 +34,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product2.setDescription("Traditional hard cheese from the Himalayas.");
             product2.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product2);
             
             Product product3 = new Product(
                 "NEP-FOOD-003", "Gundruk", "Food",
@@ -43,7 +42,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product3.setDescription("Fermented leafy vegetable, a staple in Nepali cuisine.");
             product3.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product3);
             
             Product product4 = new Product(
                 "NEP-FOOD-004", "Momo Masala", "Food",
@@ -52,7 +50,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product4.setDescription("Spice mix for authentic momos.");
             product4.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product4);
             
             Product product5 = new Product(
                 "NEP-CLOTH-001", "Dhaka Topi", "Clothing",
@@ -61,7 +58,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product5.setDescription("Traditional Nepali cap, handwoven with intricate patterns.");
             product5.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product5);
             
             Product product6 = new Product(
                 "NEP-DECOR-001", "Copper Jug", "Decor",
@@ -70,7 +66,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product6.setDescription("Handcrafted copper water jug.");
             product6.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product6);
             
             Product product7 = new Product(
                 "NEP-DECOR-002", "Prayer Wheel", "Decor",
@@ -79,7 +74,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product7.setDescription("Traditional Tibetan prayer wheel. Handcrafted with intricate details.");
             product7.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product7);
             
             Product product8 = new Product(
                 "NEP-FOOD-005", "Rice Bag (5kg)", "Food",
@@ -88,7 +82,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product8.setDescription("Premium Basmati rice from the Terai region.");
             product8.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product8);
             
             Product product9 = new Product(
                 "NEP-DECOR-003", "Brass Panas Lamps", "Decor",
@@ -97,7 +90,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product9.setDescription("Handcrafted brass panas lamps. Traditional Nepali design with intricate patterns. Perfect for home decoration.");
             product9.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product9);
             
             Product product10 = new Product(
                 "NEP-DECOR-004", "3-Set Moon Singing Bowl", "Decor",
@@ -106,7 +98,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product10.setDescription("Set of three handcrafted Tibetan singing bowls. Each bowl produces a unique harmonic sound. Used for meditation and decoration.");
             product10.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product10);
             
             Product product11 = new Product(
                 "NEP-DECOR-005", "Tibetan Rug", "Decor",
@@ -115,7 +106,6 @@ public class DataInitializer implements CommandLineRunner {
             );
             product11.setDescription("Authentic Tibetan handwoven rug. Beautiful traditional patterns and colors. Adds warmth and cultural elegance to any room.");
             product11.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product11);
             
             Product product12 = new Product(
                 "NEP-DECOR-006", "Antique Peacock Window", "Decor",
@@ -124,7 +114,12 @@ public class DataInitializer implements CommandLineRunner {
             );
             product12.setDescription("Vintage-style peacock window frame. Intricate woodwork featuring traditional Nepali peacock motifs. A stunning decorative piece.");
             product12.setImageUrl("/placeholder-product.svg");
-            productRepository.save(product12);
+            
+            // Saved together so the inserts go out as one JDBC batch
+            productRepository.saveAll(List.of(
+                product1, product2, product3, product4, product5, product6,
+                product7, product8, product9, product10, product11, product12
+            ));
         }
     }
 }
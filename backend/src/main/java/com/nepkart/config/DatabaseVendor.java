@@ -0,0 +1,35 @@
+package com.nepkart.config;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The database product behind the DataSource, read once from the JDBC metadata.
+ *
+ * Code paths that need PostgreSQL-only SQL (ON CONFLICT, tsvector, pg_trgm) check this
+ * rather than spring.jpa.database-platform, which is optional and may be left unset.
+ */
+@Component
+public class DatabaseVendor {
+
+    private final String productName;
+
+    public DatabaseVendor(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            this.productName = connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the database product name", e);
+        }
+    }
+
+    public boolean isPostgreSql() {
+        return "PostgreSQL".equals(productName);
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+}
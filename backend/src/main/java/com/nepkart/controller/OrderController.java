@@ -1,16 +1,30 @@
 package com.nepkart.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nepkart.dto.BulkStatusUpdateRequestDTO;
+import com.nepkart.dto.BulkStatusUpdateResultDTO;
 import com.nepkart.dto.CustomerDTO;
+import com.nepkart.dto.OrderPageDTO;
 import com.nepkart.dto.OrderRequestDTO;
+import com.nepkart.dto.OrderStatusDTO;
+import com.nepkart.dto.OrderSummaryPageDTO;
 import com.nepkart.model.Customer;
 import com.nepkart.model.Order;
+import com.nepkart.service.CustomerResolver;
+import com.nepkart.service.IdempotencyService;
 import com.nepkart.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +35,12 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @GetMapping
     public ResponseEntity<List<Order>> getAllOrders() {
         try {
@@ -35,6 +55,58 @@ public class OrderController {
         }
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<OrderPageDTO> getOrderPage(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrderPage(status, from, to, cursor, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+    }
+    
+    // Served from the order_summary read model: one indexed single-table query per page
+    @GetMapping("/summaries")
+    public ResponseEntity<OrderSummaryPageDTO> getOrderSummaries(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrderSummaryPage(status, from, to, cursor, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+    }
+    
+    // Newline-delimited JSON, one order per line, written as rows come off the DB cursor
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = out -> orderService.streamOrders(status, from, to, order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
@@ -50,7 +122,19 @@ public class OrderController {
     }
     
     @PostMapping
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody OrderRequestDTO orderRequest) {
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequestDTO orderRequest,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return placeOrder(orderRequest);
+        }
+        // Retries with the same key replay the stored response instead of ordering again;
+        // keys are scoped to the ordering customer
+        String scope = orderRequest.getCustomer() == null ? null
+            : CustomerResolver.normalizeEmail(orderRequest.getCustomer().getEmail());
+        return idempotencyService.execute(scope, idempotencyKey.trim(), orderRequest, () -> placeOrder(orderRequest));
+    }
+    
+    private ResponseEntity<?> placeOrder(OrderRequestDTO orderRequest) {
         try {
             CustomerDTO customerDTO = orderRequest.getCustomer();
             Customer customer = new Customer(
@@ -76,18 +160,30 @@ public class OrderController {
         }
     }
     
+    // The status update loads only the order row, so the response leaves out the customer and items
     @PutMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, 
-                                                    @RequestBody Map<String, String> statusMap) {
+    public ResponseEntity<OrderStatusDTO> updateOrderStatus(@PathVariable Long id, 
+                                                             @RequestBody Map<String, String> statusMap) {
         try {
             Order.OrderStatus status = Order.OrderStatus.valueOf(statusMap.get("status"));
             Order order = orderService.updateOrderStatus(id, status);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(new OrderStatusDTO(order));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @PutMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResultDTO> bulkUpdateStatus(@Valid @RequestBody BulkStatusUpdateRequestDTO request) {
+        try {
+            return ResponseEntity.ok(orderService.bulkUpdateStatus(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         try {
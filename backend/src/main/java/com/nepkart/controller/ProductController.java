@@ -1,57 +1,248 @@
 package com.nepkart.controller;
 
+import com.nepkart.dto.ProductFacetsDTO;
+import com.nepkart.dto.ProductSuggestionDTO;
 import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepositoryCustom;
+import com.nepkart.service.CatalogResponseCache;
+import com.nepkart.service.ProductCatalog;
 import com.nepkart.service.ProductService;
+import com.nepkart.service.ProductTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
     
+    private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+    
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ProductTransferService productTransferService;
+    
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+    
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
-        List<Product> products;
+        if (isPaged(page, size, sort, fields)) {
+            return getProductPage(category, search, null, page, size, sort, fields);
+        }
         
         if (search != null && !search.isEmpty()) {
-            products = productService.searchProducts(search);
-        } else if (category != null && !category.isEmpty()) {
-            products = productService.getProductsByCategory(category);
-        } else {
-            products = productService.getAllProducts();
+            return ResponseEntity.ok(productService.searchProducts(search));
         }
         
-        return ResponseEntity.ok(products);
+        // Listings come from the catalog snapshot; its version doubles as a strong ETag
+        ProductCatalog.Snapshot snapshot = productService.getCatalogSnapshot();
+        String validated = matchingEtag(ifNoneMatch, snapshot);
+        if (validated != null) {
+            return notModified(validated);
+        }
+        
+        // Serialized (and compressed) once per snapshot version
+        CatalogResponseCache.Body body = category != null && !category.isEmpty()
+            ? catalogResponseCache.get(snapshot.version(), "category:" + category, () -> snapshot.byCategory(category))
+            : catalogResponseCache.get(snapshot.version(), "all", snapshot::products);
+        return writeCached(body, snapshot, acceptEncoding);
+    }
+    
+    private static ResponseEntity<byte[]> writeCached(CatalogResponseCache.Body body, ProductCatalog.Snapshot snapshot,
+                                                      String acceptEncoding) {
+        byte[] gzip = acceptsGzip(acceptEncoding) ? body.gzip() : null;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .eTag(gzip != null ? snapshot.gzipEtag() : snapshot.etag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip != null) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return builder.body(body.identity());
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    // Either encoding's tag validates the snapshot; the 304 repeats the tag the client holds
+    private static String matchingEtag(String ifNoneMatch, ProductCatalog.Snapshot snapshot) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*")) {
+                return snapshot.etag();
+            }
+            if (trimmed.equals(snapshot.etag()) || trimmed.equals(snapshot.gzipEtag())) {
+                return trimmed;
+            }
+        }
+        return null;
+    }
+    
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .build();
+    }
+    
+    // Server-Sent Events: a "snapshot" of current low/out-of-stock products, then "stock-alert" per crossing
+    @GetMapping(value = "/stock-alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockAlerts() {
+        return productService.subscribeToStockAlerts();
+    }
+    
+    // Body is CSV (with header row) or NDJSON; format defaults from the Content-Type
+    @PostMapping("/import")
+    public ResponseEntity<?> importProducts(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        try {
+            ProductTransferService.Format parsed;
+            if (format != null) {
+                parsed = ProductTransferService.Format.parse(format);
+            } else {
+                String contentType = request.getContentType();
+                parsed = contentType != null && contentType.startsWith("text/csv")
+                    ? ProductTransferService.Format.CSV
+                    : ProductTransferService.Format.NDJSON;
+            }
+            return ResponseEntity.ok(productTransferService.importProducts(request.getInputStream(), parsed));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error importing products: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ProductTransferService.Format parsed;
+        try {
+            parsed = ProductTransferService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+        StreamingResponseBody body = out -> productTransferService.exportProducts(parsed, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(parsed == ProductTransferService.Format.CSV ? "text/csv" : "application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + parsed.name().toLowerCase())
+            .body(body);
+    }
+    
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggest(q, limit));
+    }
+    
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDTO> getFacets(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String origin,
+            @RequestParam(defaultValue = "false") boolean inStock) {
+        return ResponseEntity.ok(productService.getFacets(category, origin, inStock));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductCatalog.Snapshot snapshot = productService.getCatalogSnapshot();
+        Optional<Product> product = snapshot.findById(id);
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String validated = matchingEtag(ifNoneMatch, snapshot);
+        if (validated != null) {
+            return notModified(validated);
+        }
+        return writeCached(catalogResponseCache.get(snapshot.version(), "product:" + id, product::get), snapshot, acceptEncoding);
     }
     
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Product>> getLowStockProducts() {
+    public ResponseEntity<?> getLowStockProducts(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        if (isPaged(page, size, sort, fields)) {
+            return getProductPage(null, null, ProductRepositoryCustom.StockLevel.LOW, page, size, sort, fields);
+        }
         return ResponseEntity.ok(productService.getLowStockProducts());
     }
     
     @GetMapping("/out-of-stock")
-    public ResponseEntity<List<Product>> getOutOfStockProducts() {
+    public ResponseEntity<?> getOutOfStockProducts(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        if (isPaged(page, size, sort, fields)) {
+            return getProductPage(null, null, ProductRepositoryCustom.StockLevel.OUT, page, size, sort, fields);
+        }
         return ResponseEntity.ok(productService.getOutOfStockProducts());
     }
     
+    // Any paging, sorting or projection parameter switches a listing to the paged response
+    private static boolean isPaged(Integer page, Integer size, String sort, String fields) {
+        return page != null || size != null || sort != null || fields != null;
+    }
+    
+    private ResponseEntity<?> getProductPage(String category, String search, ProductRepositoryCustom.StockLevel stockLevel,
+                                             Integer page, Integer size, String sort, String fields) {
+        try {
+            return ResponseEntity.ok(productService.getProductPage(category, search, stockLevel, page, size, sort, fields));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) {
         Product createdProduct = productService.createProduct(product);
@@ -0,0 +1,42 @@
+package com.nepkart.controller;
+
+import com.nepkart.dto.QuoteCacheStatsDTO;
+import com.nepkart.dto.QuoteDTO;
+import com.nepkart.dto.QuoteRequestDTO;
+import com.nepkart.service.QuoteService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/quotes")
+public class QuoteController {
+    
+    @Autowired
+    private QuoteService quoteService;
+    
+    // One quote per cart, in request order; carts that cannot be priced carry an error instead
+    @PostMapping
+    public ResponseEntity<List<QuoteDTO>> quote(@Valid @RequestBody QuoteRequestDTO request) {
+        try {
+            return ResponseEntity.ok(quoteService.quote(request.getCarts()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<QuoteCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(quoteService.getCacheStats());
+    }
+}
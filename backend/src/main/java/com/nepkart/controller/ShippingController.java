@@ -1,12 +1,16 @@
 package com.nepkart.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.nepkart.dto.CartLinesDTO;
+import com.nepkart.service.ShippingRateEngine;
 import com.nepkart.service.ShippingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,9 +20,49 @@ public class ShippingController {
     @Autowired
     private ShippingService shippingService;
     
+    @Autowired
+    private ShippingRateEngine shippingRateEngine;
+    
+    // The destination selects the rate zone, as it does when the order is placed
     @PostMapping("/calculate")
-    public ResponseEntity<Map<String, BigDecimal>> calculateShipping(@RequestBody List<Map<String, Object>> cartItems) {
-        BigDecimal shippingCost = shippingService.calculateShippingCost(cartItems);
-        return ResponseEntity.ok(Map.of("shippingCost", shippingCost));
+    public ResponseEntity<Map<String, BigDecimal>> calculateShipping(
+            @RequestBody CartLinesDTO cartLines,
+            @RequestParam(required = false) String zip,
+            @RequestParam(required = false) String state) {
+        try {
+            BigDecimal shippingCost = shippingService.calculateShippingCost(cartLines, zip, state);
+            return ResponseEntity.ok(Map.of("shippingCost", shippingCost));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
+    }
+    
+    // Malformed and oversized carts are rejected while the body is parsed
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, BigDecimal>> rejectUnreadableCart(HttpMessageNotReadableException e) {
+        Throwable cause = e.getMostSpecificCause();
+        String message = cause instanceof JsonProcessingException json ? json.getOriginalMessage() : cause.getMessage();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .header("X-Error-Message", message)
+            .build();
+    }
+    
+    @GetMapping("/rates/version")
+    public ResponseEntity<Map<String, String>> getRateTableVersion() {
+        return ResponseEntity.ok(Map.of("version", shippingRateEngine.getVersion()));
+    }
+    
+    // Applies an edited rate file immediately instead of waiting for the next poll
+    @PostMapping("/rates/reload")
+    public ResponseEntity<Map<String, String>> reloadRateTable() {
+        try {
+            return ResponseEntity.ok(Map.of("version", shippingRateEngine.reload()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .header("X-Error-Message", e.getMessage())
+                .build();
+        }
     }
 }
@@ -0,0 +1,62 @@
+package com.nepkart.dto;
+
+import com.nepkart.model.Order;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BulkStatusUpdateRequestDTO {
+    
+    @NotNull(message = "Target status is required")
+    private Order.OrderStatus status;
+    
+    // Either explicit ids...
+    private List<Long> ids;
+    
+    // ...or a filter: every order currently in fromStatus, optionally within [from, to)
+    private Order.OrderStatus fromStatus;
+    
+    private LocalDateTime from;
+    
+    private LocalDateTime to;
+    
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public Order.OrderStatus getFromStatus() {
+        return fromStatus;
+    }
+    
+    public void setFromStatus(Order.OrderStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,56 @@
+package com.nepkart.dto;
+
+import com.nepkart.model.Order;
+import java.util.List;
+
+public class BulkStatusUpdateResultDTO {
+    
+    private Order.OrderStatus status;
+    
+    private int updated;
+    
+    private List<Outcome> results;
+    
+    public BulkStatusUpdateResultDTO() {
+    }
+    
+    public BulkStatusUpdateResultDTO(Order.OrderStatus status, int updated, List<Outcome> results) {
+        this.status = status;
+        this.updated = updated;
+        this.results = results;
+    }
+    
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public List<Outcome> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<Outcome> results) {
+        this.results = results;
+    }
+    
+    public record Outcome(Long id, Result result, Order.OrderStatus previousStatus) {
+    }
+    
+    public enum Result {
+        UPDATED,             // Moved to the target status
+        UNCHANGED,           // Already in the target status
+        INVALID_TRANSITION,  // Current status cannot move to the target
+        NOT_FOUND            // No order with this id
+    }
+}
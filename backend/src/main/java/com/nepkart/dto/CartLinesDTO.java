@@ -0,0 +1,103 @@
+package com.nepkart.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Cart lines bound from a JSON array of {@code {"productId": 1, "quantity": 2}} objects.
+ *
+ * The array is read token by token straight into parallel primitive arrays, so binding
+ * creates no per-line objects. Other fields (such as a client-supplied weight) are skipped.
+ * A cart longer than {@code nepkart.shipping.max-cart-lines} is rejected as soon as the
+ * extra line starts, before it is read or the arrays grow.
+ */
+@JsonDeserialize(using = CartLinesDTO.Deserializer.class)
+public class CartLinesDTO {
+    
+    private final long[] productIds;
+    
+    private final int[] quantities;
+    
+    private final int size;
+    
+    public CartLinesDTO(long[] productIds, int[] quantities, int size) {
+        this.productIds = productIds;
+        this.quantities = quantities;
+        this.size = size;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public long productId(int line) {
+        return productIds[line];
+    }
+    
+    public int quantity(int line) {
+        return quantities[line];
+    }
+    
+    public static class Deserializer extends JsonDeserializer<CartLinesDTO> {
+        
+        // Injected when Spring's ObjectMapper instantiates the deserializer
+        @Value("${nepkart.shipping.max-cart-lines:500}")
+        private int maxLines = 500;
+        
+        @Override
+        public CartLinesDTO deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                return (CartLinesDTO) context.handleUnexpectedToken(CartLinesDTO.class, parser);
+            }
+            long[] productIds = new long[8];
+            int[] quantities = new int[8];
+            int size = 0;
+            
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    return (CartLinesDTO) context.handleUnexpectedToken(CartLinesDTO.class, parser);
+                }
+                if (size == maxLines) {
+                    throw JsonMappingException.from(parser, "Too many cart lines (max " + maxLines + ")");
+                }
+                long productId = -1;
+                int quantity = -1;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("productId".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        productId = parser.getLongValue();
+                    } else if ("quantity".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        quantity = parser.getIntValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (productId < 1) {
+                    throw JsonMappingException.from(parser, "Line " + (size + 1) + " needs a positive integer productId");
+                }
+                if (quantity < 1) {
+                    throw JsonMappingException.from(parser, "Line " + (size + 1) + " needs a positive integer quantity");
+                }
+                if (size == productIds.length) {
+                    int capacity = Math.min(size * 2, maxLines);
+                    productIds = Arrays.copyOf(productIds, capacity);
+                    quantities = Arrays.copyOf(quantities, capacity);
+                }
+                productIds[size] = productId;
+                quantities[size] = quantity;
+                size++;
+            }
+            return new CartLinesDTO(productIds, quantities, size);
+        }
+    }
+}
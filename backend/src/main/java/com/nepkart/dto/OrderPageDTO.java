@@ -0,0 +1,36 @@
+package com.nepkart.dto;
+
+import com.nepkart.model.Order;
+import java.util.List;
+
+public class OrderPageDTO {
+    
+    private List<Order> orders;
+    
+    // Opaque keyset cursor for the next page, null on the last page
+    private String nextCursor;
+    
+    public OrderPageDTO() {
+    }
+    
+    public OrderPageDTO(List<Order> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Order> getOrders() {
+        return orders;
+    }
+    
+    public void setOrders(List<Order> orders) {
+        this.orders = orders;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
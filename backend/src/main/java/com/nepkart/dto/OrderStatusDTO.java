@@ -0,0 +1,46 @@
+package com.nepkart.dto;
+
+import com.nepkart.model.Order;
+
+// Response for a single status change; carries only what the update loads
+public class OrderStatusDTO {
+    
+    private Long id;
+    
+    private String orderId;
+    
+    private Order.OrderStatus status;
+    
+    public OrderStatusDTO() {
+    }
+    
+    public OrderStatusDTO(Order order) {
+        this.id = order.getId();
+        this.orderId = order.getOrderId();
+        this.status = order.getStatus();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+}
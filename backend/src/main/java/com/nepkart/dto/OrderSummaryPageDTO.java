@@ -0,0 +1,36 @@
+package com.nepkart.dto;
+
+import com.nepkart.model.OrderSummary;
+import java.util.List;
+
+public class OrderSummaryPageDTO {
+    
+    private List<OrderSummary> summaries;
+    
+    // Opaque keyset cursor for the next page, null on the last page
+    private String nextCursor;
+    
+    public OrderSummaryPageDTO() {
+    }
+    
+    public OrderSummaryPageDTO(List<OrderSummary> summaries, String nextCursor) {
+        this.summaries = summaries;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<OrderSummary> getSummaries() {
+        return summaries;
+    }
+    
+    public void setSummaries(List<OrderSummary> summaries) {
+        this.summaries = summaries;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,60 @@
+package com.nepkart.dto;
+
+import java.util.List;
+
+public class ProductFacetsDTO {
+    
+    private long total;
+    
+    private List<Value> categories;
+    
+    private List<Value> origins;
+    
+    private List<Value> priceRanges;
+    
+    public ProductFacetsDTO() {
+    }
+    
+    public ProductFacetsDTO(long total, List<Value> categories, List<Value> origins, List<Value> priceRanges) {
+        this.total = total;
+        this.categories = categories;
+        this.origins = origins;
+        this.priceRanges = priceRanges;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public List<Value> getCategories() {
+        return categories;
+    }
+    
+    public void setCategories(List<Value> categories) {
+        this.categories = categories;
+    }
+    
+    public List<Value> getOrigins() {
+        return origins;
+    }
+    
+    public void setOrigins(List<Value> origins) {
+        this.origins = origins;
+    }
+    
+    public List<Value> getPriceRanges() {
+        return priceRanges;
+    }
+    
+    public void setPriceRanges(List<Value> priceRanges) {
+        this.priceRanges = priceRanges;
+    }
+    
+    // id is the dictionary id (category, origin) or bucket index (price)
+    public record Value(int id, String label, long count) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.nepkart.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportResultDTO {
+    
+    private int created;
+    
+    private int updated;
+    
+    private int failed;
+    
+    // First rejected rows only; see errorsTruncated
+    private List<RowError> errors = new ArrayList<>();
+    
+    private boolean errorsTruncated;
+    
+    public ProductImportResultDTO() {
+    }
+    
+    public int getCreated() {
+        return created;
+    }
+    
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+    
+    // row is the 1-based data row (CSV header and blank lines not counted)
+    public record RowError(long row, String sku, String message) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.nepkart.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ProductPageDTO {
+    
+    // Each product holds only the requested fields
+    private List<Map<String, Object>> products;
+    
+    private int page;
+    
+    private int size;
+    
+    private long totalElements;
+    
+    private int totalPages;
+    
+    public ProductPageDTO() {
+    }
+    
+    public ProductPageDTO(List<Map<String, Object>> products, int page, int size, long totalElements) {
+        this.products = products;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = (int) ((totalElements + size - 1) / size);
+    }
+    
+    public List<Map<String, Object>> getProducts() {
+        return products;
+    }
+    
+    public void setProducts(List<Map<String, Object>> products) {
+        this.products = products;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public long getTotalElements() {
+        return totalElements;
+    }
+    
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+    
+    public int getTotalPages() {
+        return totalPages;
+    }
+    
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
@@ -0,0 +1,65 @@
+package com.nepkart.dto;
+
+public class ProductSuggestionDTO {
+    
+    private Long id;
+    
+    private String name;
+    
+    private String sku;
+    
+    private String origin;
+    
+    private int stock;
+    
+    public ProductSuggestionDTO() {
+    }
+    
+    public ProductSuggestionDTO(Long id, String name, String sku, String origin, int stock) {
+        this.id = id;
+        this.name = name;
+        this.sku = sku;
+        this.origin = origin;
+        this.stock = stock;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public int getStock() {
+        return stock;
+    }
+    
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+}
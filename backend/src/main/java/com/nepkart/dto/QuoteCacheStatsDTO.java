@@ -0,0 +1,99 @@
+package com.nepkart.dto;
+
+public class QuoteCacheStatsDTO {
+    
+    private int size;
+    
+    private int capacity;
+    
+    private long hits;
+    
+    private long misses;
+    
+    private double hitRate;
+    
+    private long evictions;
+    
+    // New carts not admitted because they were requested less often than the entry they would replace
+    private long rejections;
+    
+    private long invalidations;
+    
+    public QuoteCacheStatsDTO() {
+    }
+    
+    public QuoteCacheStatsDTO(int size, int capacity, long hits, long misses, double hitRate, long evictions, long rejections, long invalidations) {
+        this.size = size;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+        this.rejections = rejections;
+        this.invalidations = invalidations;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    public long getHits() {
+        return hits;
+    }
+    
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+    
+    public long getMisses() {
+        return misses;
+    }
+    
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+    
+    public double getHitRate() {
+        return hitRate;
+    }
+    
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+    
+    public long getEvictions() {
+        return evictions;
+    }
+    
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+    
+    public long getRejections() {
+        return rejections;
+    }
+    
+    public void setRejections(long rejections) {
+        this.rejections = rejections;
+    }
+    
+    public long getInvalidations() {
+        return invalidations;
+    }
+    
+    public void setInvalidations(long invalidations) {
+        this.invalidations = invalidations;
+    }
+}
@@ -0,0 +1,85 @@
+package com.nepkart.dto;
+
+import java.math.BigDecimal;
+
+public class QuoteDTO {
+    
+    private String reference;
+    
+    private BigDecimal subtotal;
+    
+    private BigDecimal shippingCost;
+    
+    private BigDecimal tax;
+    
+    private BigDecimal total;
+    
+    // Set instead of the amounts when the cart cannot be priced
+    private String error;
+    
+    public QuoteDTO() {
+    }
+    
+    public QuoteDTO(String reference, BigDecimal subtotal, BigDecimal shippingCost, BigDecimal tax, BigDecimal total) {
+        this.reference = reference;
+        this.subtotal = subtotal;
+        this.shippingCost = shippingCost;
+        this.tax = tax;
+        this.total = total;
+    }
+    
+    public static QuoteDTO failed(String reference, String error) {
+        QuoteDTO quote = new QuoteDTO();
+        quote.setReference(reference);
+        quote.setError(error);
+        return quote;
+    }
+    
+    public String getReference() {
+        return reference;
+    }
+    
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    public BigDecimal getShippingCost() {
+        return shippingCost;
+    }
+    
+    public void setShippingCost(BigDecimal shippingCost) {
+        this.shippingCost = shippingCost;
+    }
+    
+    public BigDecimal getTax() {
+        return tax;
+    }
+    
+    public void setTax(BigDecimal tax) {
+        this.tax = tax;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
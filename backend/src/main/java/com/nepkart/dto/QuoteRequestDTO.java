@@ -0,0 +1,67 @@
+package com.nepkart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import java.util.Map;
+
+public class QuoteRequestDTO {
+    
+    @Valid
+    @NotEmpty(message = "At least one cart is required")
+    private List<Cart> carts;
+    
+    public List<Cart> getCarts() {
+        return carts;
+    }
+    
+    public void setCarts(List<Cart> carts) {
+        this.carts = carts;
+    }
+    
+    public static class Cart {
+        
+        // Caller's reference, echoed back in the quote
+        private String reference;
+        
+        @NotEmpty(message = "Product quantities are required")
+        private Map<Long, Integer> productQuantities;
+        
+        // Destination: state takes precedence over ZIP, as in /api/tax/rate
+        private String zipCode;
+        
+        private String state;
+        
+        public String getReference() {
+            return reference;
+        }
+        
+        public void setReference(String reference) {
+            this.reference = reference;
+        }
+        
+        public Map<Long, Integer> getProductQuantities() {
+            return productQuantities;
+        }
+        
+        public void setProductQuantities(Map<Long, Integer> productQuantities) {
+            this.productQuantities = productQuantities;
+        }
+        
+        public String getZipCode() {
+            return zipCode;
+        }
+        
+        public void setZipCode(String zipCode) {
+            this.zipCode = zipCode;
+        }
+        
+        public String getState() {
+            return state;
+        }
+        
+        public void setState(String state) {
+            this.state = state;
+        }
+    }
+}
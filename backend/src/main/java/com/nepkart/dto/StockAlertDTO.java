@@ -0,0 +1,104 @@
+package com.nepkart.dto;
+
+import java.time.LocalDateTime;
+
+public class StockAlertDTO {
+    
+    public enum Level { OK, LOW, OUT }
+    
+    private Long productId;
+    
+    private String sku;
+    
+    private String name;
+    
+    private int stock;
+    
+    private int lowStockThreshold;
+    
+    private Level level;
+    
+    // Level before this change, null for the initial state sent to new subscribers
+    private Level previousLevel;
+    
+    private LocalDateTime timestamp;
+    
+    public StockAlertDTO() {
+    }
+    
+    public StockAlertDTO(Long productId, String sku, String name, int stock, int lowStockThreshold,
+                         Level level, Level previousLevel) {
+        this.productId = productId;
+        this.sku = sku;
+        this.name = name;
+        this.stock = stock;
+        this.lowStockThreshold = lowStockThreshold;
+        this.level = level;
+        this.previousLevel = previousLevel;
+        this.timestamp = LocalDateTime.now();
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public int getStock() {
+        return stock;
+    }
+    
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+    
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+    
+    public void setLowStockThreshold(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+    
+    public Level getLevel() {
+        return level;
+    }
+    
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+    
+    public Level getPreviousLevel() {
+        return previousLevel;
+    }
+    
+    public void setPreviousLevel(Level previousLevel) {
+        this.previousLevel = previousLevel;
+    }
+    
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
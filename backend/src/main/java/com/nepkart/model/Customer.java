@@ -8,12 +8,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// Emails are unique case-insensitively through ux_customers_email_lower on lower(email),
+// which JPA cannot declare; CustomerResolver creates it at startup on PostgreSQL
 @Table(name = "customers")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Customer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customers_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -24,7 +27,7 @@ public class Customer {
     @NotBlank(message = "Last name is required")
     private String lastName;
     
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
     private String email;
@@ -0,0 +1,74 @@
+package com.nepkart.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on {@code long} minor units (cents).
+ *
+ * Pricing, tax and shipping work on plain longs and only convert to {@link BigDecimal}
+ * where amounts enter or leave the system (entity fields, JSON). Every operation is
+ * exact except {@link #applyRate}, which rounds half-up to the cent, the same rule as
+ * {@code setScale(2, RoundingMode.HALF_UP)}. Overflow throws rather than wrapping.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to minor units, rounding half-up beyond two decimals.
+     */
+    public static long fromDecimal(BigDecimal amount) {
+        return amount.setScale(SCALE, ROUNDING).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static long times(long minor, int quantity) {
+        return Math.multiplyExact(minor, quantity);
+    }
+
+    public static long plus(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Multiplies by a rate given as {@code rateUnits / 10^rateScale} (e.g. 899 and 4 for
+     * 8.99%) and rounds half-up to the cent.
+     */
+    public static long applyRate(long minor, long rateUnits, int rateScale) {
+        return divideHalfUp(Math.multiplyExact(minor, rateUnits), POWERS_OF_TEN[rateScale]);
+    }
+
+    /**
+     * Splits a decimal rate into the units/scale pair used by {@link #applyRate}.
+     *
+     * @return {unscaled units, scale}
+     */
+    public static long[] rateParts(BigDecimal rate) {
+        BigDecimal normalized = rate.scale() < 0 ? rate.setScale(0) : rate;
+        if (normalized.scale() >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Rate has too many decimals: " + rate);
+        }
+        return new long[] { normalized.unscaledValue().longValueExact(), normalized.scale() };
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
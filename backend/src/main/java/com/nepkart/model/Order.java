@@ -10,24 +10,36 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(name = Order.GRAPH_SUMMARY, attributeNodes = @NamedAttributeNode("customer"))
+@NamedEntityGraph(name = Order.GRAPH_DETAIL,
+    attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "orderItems", subgraph = "items")
+    },
+    subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Order {
     
+    // Fetch plans: list views join the customer and batch-load items; detail views join everything
+    public static final String GRAPH_SUMMARY = "Order.summary";
+    public static final String GRAPH_DETAIL = "Order.detail";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
     @NotBlank(message = "Order ID is required")
     private String orderId;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     @NotNull(message = "Customer is required")
     @JsonIgnoreProperties({"orders"}) // Prevent circular reference
     private Customer customer;
     
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
     
     @Column(nullable = false, precision = 10, scale = 2)
@@ -157,18 +169,26 @@ public class Order {
     
     // Business Logic
     public void calculateTotal() {
-        this.subtotal = orderItems.stream()
-            .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long subtotalMinor = 0;
+        for (OrderItem item : orderItems) {
+            subtotalMinor = Money.plus(subtotalMinor, Money.times(Money.fromDecimal(item.getPrice()), item.getQuantity()));
+        }
         if (this.tax == null) {
             this.tax = BigDecimal.ZERO;
         }
-        this.total = this.subtotal.add(this.shippingCost).add(this.tax);
+        this.subtotal = Money.toDecimal(subtotalMinor);
+        this.total = Money.toDecimal(Money.plus(Money.plus(subtotalMinor, Money.fromDecimal(this.shippingCost)),
+            Money.fromDecimal(this.tax)));
     }
     
     public enum OrderStatus {
         RECEIVED,      // Order received from customer
         IN_PROGRESS,   // Order being processed/prepared
-        SHIPPED        // Order has been shipped
+        SHIPPED;       // Order has been shipped
+        
+        // Fulfilment only moves forward one step at a time
+        public boolean canTransitionTo(OrderStatus target) {
+            return target.ordinal() == this.ordinal() + 1;
+        }
     }
 }
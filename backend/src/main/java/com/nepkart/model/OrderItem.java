@@ -12,7 +12,8 @@ import java.math.BigDecimal;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -21,7 +22,7 @@ public class OrderItem {
     @JsonIgnore // Prevent circular reference in JSON serialization
     private Order order;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     @NotNull(message = "Product is required")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -91,6 +92,6 @@ public class OrderItem {
     
     // Business Logic
     public BigDecimal getSubtotal() {
-        return price.multiply(BigDecimal.valueOf(quantity));
+        return Money.toDecimal(Money.times(Money.fromDecimal(price), quantity));
     }
 }
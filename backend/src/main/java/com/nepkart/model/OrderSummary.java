@@ -0,0 +1,111 @@
+package com.nepkart.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized, single-table view of an order for admin listings.
+ * Rows share the primary key of their order and are written by OrderService
+ * in the same transaction as the order itself.
+ */
+@Entity
+@Table(name = "order_summary")
+public class OrderSummary {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "order_id", unique = true, nullable = false)
+    private String orderId;
+    
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+    
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal total;
+    
+    @Column(name = "status", nullable = false)
+    private Order.OrderStatus status;
+    
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+    
+    // Constructors
+    public OrderSummary() {
+    }
+    
+    public OrderSummary(Order order) {
+        this(order, order.getCustomer().getFirstName() + " " + order.getCustomer().getLastName());
+    }
+    
+    public OrderSummary(Order order, String customerName) {
+        this.id = order.getId();
+        this.orderId = order.getOrderId();
+        this.customerName = customerName;
+        this.itemCount = order.getOrderItems().stream().mapToInt(OrderItem::getQuantity).sum();
+        this.total = order.getTotal();
+        this.status = order.getStatus();
+        this.orderDate = order.getOrderDate();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+    
+    public Integer getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+    
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+}
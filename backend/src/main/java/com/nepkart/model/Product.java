@@ -1,5 +1,6 @@
 package com.nepkart.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -11,7 +12,8 @@ import java.math.BigDecimal;
 public class Product {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -56,6 +58,10 @@ public class Product {
     @Column(name = "image_url", columnDefinition = "TEXT")
     private String imageUrl;
     
+    // Price in minor units for pricing loops, converted once per price value; see getPriceMinor
+    @Transient
+    private volatile MinorPrice minorPrice;
+    
     // Constructors
     public Product() {
     }
@@ -113,6 +119,21 @@ public class Product {
         this.price = price;
     }
     
+    /**
+     * The price in minor units. The conversion allocates, so its result is kept with the
+     * BigDecimal it came from and redone only when the price field holds a different
+     * instance, whether set through the setter, by Hibernate or by a merge.
+     */
+    @JsonIgnore
+    public long getPriceMinor() {
+        MinorPrice cached = minorPrice;
+        if (cached == null || cached.source() != price) {
+            cached = new MinorPrice(price, Money.fromDecimal(price));
+            minorPrice = cached;
+        }
+        return cached.minor();
+    }
+    
     public Integer getStock() {
         return stock;
     }
@@ -177,4 +198,7 @@ public class Product {
             throw new IllegalArgumentException("Insufficient stock. Available: " + this.stock);
         }
     }
+    
+    private record MinorPrice(BigDecimal source, long minor) {
+    }
 }
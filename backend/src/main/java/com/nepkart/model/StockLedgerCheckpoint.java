@@ -0,0 +1,46 @@
+package com.nepkart.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Highest stock ledger journal segment applied to {@code products.stock}. Advanced in the
+ * same transaction as the segment's deltas, so a segment is never applied twice.
+ */
+@Entity
+@Table(name = "stock_ledger_checkpoint")
+public class StockLedgerCheckpoint {
+    
+    public static final int SINGLETON_ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "applied_segment", nullable = false)
+    private Long appliedSegment;
+    
+    // Constructors
+    public StockLedgerCheckpoint() {
+    }
+    
+    public StockLedgerCheckpoint(Integer id, Long appliedSegment) {
+        this.id = id;
+        this.appliedSegment = appliedSegment;
+    }
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public Long getAppliedSegment() {
+        return appliedSegment;
+    }
+    
+    public void setAppliedSegment(Long appliedSegment) {
+        this.appliedSegment = appliedSegment;
+    }
+}
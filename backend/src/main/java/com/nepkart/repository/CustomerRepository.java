@@ -2,6 +2,7 @@ package com.nepkart.repository;
 
 import com.nepkart.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +11,23 @@ import java.util.Optional;
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
     Optional<Customer> findByEmail(String email);
+    
+    // Insert-or-get in one statement; the no-op update makes RETURNING yield the existing row on conflict.
+    // Conflicts on lower(email) (ux_customers_email_lower, ensured by CustomerResolver at startup).
+    // The id is drawn from the entity's sequence because Hibernate-created tables have no column default;
+    // each nextval is a fresh block of 50, so it never overlaps ids Hibernate hands out.
+    // Aliases are quoted so PostgreSQL keeps their case.
+    @Query(value = "INSERT INTO customers (id, first_name, last_name, email, phone, address, city, state, zip_code) " +
+                   "VALUES (nextval('customers_id_seq'), :#{#c.firstName}, :#{#c.lastName}, :#{#c.email}, :#{#c.phone}, " +
+                   ":#{#c.address}, :#{#c.city}, :#{#c.state}, :#{#c.zipCode}) " +
+                   "ON CONFLICT ((lower(email))) DO UPDATE SET email = EXCLUDED.email " +
+                   "RETURNING id, first_name AS \"firstName\", last_name AS \"lastName\"",
+           nativeQuery = true)
+    CustomerKey upsertByEmail(Customer c);
+    
+    interface CustomerKey {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+    }
 }
@@ -0,0 +1,48 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.Order;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filter and keyset predicates shared by the order and order_summary listings. Both
+ * entities page in (orderDate DESC, id DESC) order over attributes of the same names.
+ */
+final class OrderKeyset {
+    
+    private OrderKeyset() {
+    }
+    
+    static Predicate[] predicates(CriteriaBuilder cb, Root<?> root,
+                                  Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                  LocalDateTime cursorDate, Long cursorId) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("orderDate"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(root.get("orderDate"), to));
+        }
+        if (cursorDate != null && cursorId != null) {
+            // Rows strictly after the cursor in (orderDate DESC, id DESC) order
+            predicates.add(cb.or(
+                cb.lessThan(root.get("orderDate"), cursorDate),
+                cb.and(
+                    cb.equal(root.get("orderDate"), cursorDate),
+                    cb.lessThan(root.get("id"), cursorId))));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+    
+    static List<jakarta.persistence.criteria.Order> newestFirst(CriteriaBuilder cb, Root<?> root) {
+        return List.of(cb.desc(root.get("orderDate")), cb.desc(root.get("id")));
+    }
+}
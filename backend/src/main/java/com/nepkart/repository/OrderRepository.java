@@ -1,13 +1,55 @@
 package com.nepkart.repository;
 
 import com.nepkart.model.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
     
+    @Override
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    List<Order> findAll();
+    
+    @EntityGraph(Order.GRAPH_DETAIL)
+    Optional<Order> findDetailById(Long id);
+    
+    @EntityGraph(Order.GRAPH_DETAIL)
     Optional<Order> findByOrderId(String orderId);
+    
+    // Snowflake ids are zero-padded base 36, so they start with "NEP-0" and sort by value;
+    // legacy "NEP-<millis>" ids never start with 0
+    @Query("SELECT MAX(o.orderId) FROM Order o WHERE o.orderId LIKE 'NEP-0%'")
+    Optional<String> findMaxSnowflakeOrderId();
+    
+    // Locks the rows so the outcomes reported for a bulk transition match what the UPDATE does
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id AS id, o.status AS status FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusView> lockStatusesByIdIn(Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :target WHERE o.id IN :ids AND o.status = :source")
+    int transitionStatus(Collection<Long> ids, Order.OrderStatus source, Order.OrderStatus target);
+    
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id = :orderId")
+    int deleteItemsByOrderId(Long orderId);
+    
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id = :id")
+    int deleteOrderById(Long id);
+    
+    interface OrderStatusView {
+        Long getId();
+        Order.OrderStatus getStatus();
+    }
 }
@@ -0,0 +1,21 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+    
+    /**
+     * Keyset page of orders, newest first by (orderDate, id). Pass a null cursor for the
+     * first page; every filter argument is optional.
+     */
+    List<Order> findPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                         LocalDateTime cursorDate, Long cursorId, int limit);
+    
+    /**
+     * Ids of orders matching the filter, newest first, without loading the entities.
+     */
+    List<Long> findIds(Order.OrderStatus status, LocalDateTime from, LocalDateTime to, int limit);
+}
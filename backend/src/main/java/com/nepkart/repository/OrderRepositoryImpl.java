@@ -0,0 +1,53 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Order> findPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                LocalDateTime cursorDate, Long cursorId, int limit) {
+        return buildQuery(status, from, to, cursorDate, cursorId)
+            .setHint("jakarta.persistence.fetchgraph", entityManager.getEntityGraph(Order.GRAPH_SUMMARY))
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public List<Long> findIds(Order.OrderStatus status, LocalDateTime from, LocalDateTime to, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> order = query.from(Order.class);
+        
+        query.select(order.get("id"))
+            .where(OrderKeyset.predicates(cb, order, status, from, to, null, null))
+            .orderBy(OrderKeyset.newestFirst(cb, order));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    private TypedQuery<Order> buildQuery(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                         LocalDateTime cursorDate, Long cursorId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> order = query.from(Order.class);
+        
+        query.select(order)
+            .where(OrderKeyset.predicates(cb, order, status, from, to, cursorDate, cursorId))
+            .orderBy(OrderKeyset.newestFirst(cb, order));
+        return entityManager.createQuery(query);
+    }
+}
@@ -0,0 +1,26 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.Order;
+import com.nepkart.model.OrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long>, OrderSummaryRepositoryCustom {
+    
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status WHERE s.id = :id")
+    int updateStatus(Long id, Order.OrderStatus status);
+    
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status WHERE s.id IN :ids")
+    int updateStatusForIds(Collection<Long> ids, Order.OrderStatus status);
+    
+    @Modifying
+    @Query("DELETE FROM OrderSummary s WHERE s.id = :id")
+    int deleteSummaryById(Long id);
+}
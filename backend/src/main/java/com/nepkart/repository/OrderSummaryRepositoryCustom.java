@@ -0,0 +1,17 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.Order;
+import com.nepkart.model.OrderSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderSummaryRepositoryCustom {
+    
+    /**
+     * Keyset page of order summaries, newest first by (orderDate, id), with the same
+     * filter and cursor semantics as OrderRepositoryCustom.findPage.
+     */
+    List<OrderSummary> findPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                LocalDateTime cursorDate, Long cursorId, int limit);
+}
@@ -0,0 +1,39 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.Order;
+import com.nepkart.model.OrderSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderSummaryRepositoryImpl implements OrderSummaryRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<OrderSummary> findPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                       LocalDateTime cursorDate, Long cursorId, int limit) {
+        return buildQuery(status, from, to, cursorDate, cursorId)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    private TypedQuery<OrderSummary> buildQuery(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                                LocalDateTime cursorDate, Long cursorId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummary> query = cb.createQuery(OrderSummary.class);
+        Root<OrderSummary> summary = query.from(OrderSummary.class);
+        
+        query.select(summary)
+            .where(OrderKeyset.predicates(cb, summary, status, from, to, cursorDate, cursorId))
+            .orderBy(OrderKeyset.newestFirst(cb, summary));
+        return entityManager.createQuery(query);
+    }
+}
@@ -1,15 +1,22 @@
 package com.nepkart.repository;
 
 import com.nepkart.model.Product;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     
     Optional<Product> findBySku(String sku);
     
@@ -23,6 +30,106 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.stock > 0 AND p.stock <= p.lowStockThreshold")
     List<Product> findLowStockProducts();
     
-    @Query("SELECT p FROM Product p WHERE p.name LIKE %:searchTerm% OR p.description LIKE %:searchTerm%")
-    List<Product> searchProducts(String searchTerm);
+    // Escape character of the LIKE queries; see containsPattern
+    char LIKE_ESCAPE = '!';
+    
+    default List<Product> searchProducts(String searchTerm, Pageable pageable) {
+        return searchProductsLike(containsPattern(searchTerm), pageable);
+    }
+    
+    // Portable, case-insensitive variant for databases without full-text support (e.g. H2)
+    default List<Product> searchProductsIgnoreCase(String searchTerm, Pageable pageable) {
+        return searchProductsLikeIgnoreCase(containsPattern(searchTerm.toLowerCase(Locale.ROOT)), pageable);
+    }
+    
+    @Query("SELECT p FROM Product p WHERE p.name LIKE :pattern ESCAPE '!' OR p.description LIKE :pattern ESCAPE '!' " +
+           "ORDER BY p.id")
+    List<Product> searchProductsLike(String pattern, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE :pattern ESCAPE '!' " +
+           "OR LOWER(p.description) LIKE :pattern ESCAPE '!' " +
+           "OR LOWER(p.sku) LIKE :pattern ESCAPE '!' ORDER BY p.id")
+    List<Product> searchProductsLikeIgnoreCase(String pattern, Pageable pageable);
+    
+    /**
+     * A LIKE pattern matching values that contain {@code term}; {@code %}, {@code _} and the
+     * escape character in the term match literally, so a search for "50%" is not a wildcard.
+     */
+    static String containsPattern(String term) {
+        StringBuilder pattern = new StringBuilder(term.length() + 2).append('%');
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+    
+    // PostgreSQL full-text search over the maintained search_vector column (migration 009)
+    @Query(value = "SELECT p.* FROM products p WHERE p.search_vector @@ to_tsquery('simple', :tsQuery) " +
+                   "ORDER BY ts_rank(p.search_vector, to_tsquery('simple', :tsQuery)) DESC, p.id LIMIT :limit",
+           nativeQuery = true)
+    List<Product> searchFullText(String tsQuery, int limit);
+    
+    // pg_trgm similarity on name, used when full-text search finds nothing (typos)
+    @Query(value = "SELECT p.* FROM products p WHERE p.name % :searchTerm " +
+                   "ORDER BY similarity(p.name, :searchTerm) DESC, p.id LIMIT :limit",
+           nativeQuery = true)
+    List<Product> searchTrigram(String searchTerm, int limit);
+    
+    // Id-only variants of the two searches above, for paged and projected listings
+    @Query(value = "SELECT p.id FROM products p WHERE p.search_vector @@ to_tsquery('simple', :tsQuery) " +
+                   "ORDER BY ts_rank(p.search_vector, to_tsquery('simple', :tsQuery)) DESC, p.id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> searchFullTextIds(String tsQuery, int limit);
+    
+    @Query(value = "SELECT p.id FROM products p WHERE p.name % :searchTerm " +
+                   "ORDER BY similarity(p.name, :searchTerm) DESC, p.id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> searchTrigramIds(String searchTerm, int limit);
+    
+    List<Product> findByIdInOrderByIdAsc(Collection<Long> ids);
+    
+    List<Product> findBySkuIn(Collection<String> skus);
+    
+    // Forward-only cursor for exports; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllOrderById();
+    
+    // Narrow scan used to seed the stock alert monitor
+    @Query("SELECT p.id AS id, p.sku AS sku, p.name AS name, p.stock AS stock, " +
+           "p.lowStockThreshold AS lowStockThreshold FROM Product p")
+    List<StockLevelView> findStockLevels();
+    
+    // Units ordered per product, used as the popularity signal for suggestions
+    @Query("SELECT oi.product.id AS productId, SUM(oi.quantity) AS unitsSold FROM OrderItem oi GROUP BY oi.product.id")
+    List<UnitsSoldView> findUnitsSold();
+    
+    // Atomic conditional decrement - returns 0 when the row is missing or stock is insufficient
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStockIfAvailable(Long id, int quantity);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta WHERE p.id = :id")
+    int adjustStock(Long id, int delta);
+    
+    interface StockLevelView {
+        Long getId();
+        String getSku();
+        String getName();
+        Integer getStock();
+        Integer getLowStockThreshold();
+    }
+    
+    interface UnitsSoldView {
+        Long getProductId();
+        Long getUnitsSold();
+    }
 }
@@ -0,0 +1,36 @@
+package com.nepkart.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+    
+    // Attributes that may be requested with fields=, in the order they are serialized
+    List<String> FIELDS = List.of("id", "sku", "name", "category", "price", "stock",
+        "lowStockThreshold", "weight", "origin", "description", "imageUrl");
+    
+    // Long-text columns are not sortable
+    List<String> SORTABLE_FIELDS = List.of("id", "sku", "name", "category", "price", "stock",
+        "lowStockThreshold", "weight", "origin");
+    
+    enum StockLevel { LOW, OUT }
+    
+    /**
+     * Listing filter; every component is optional. {@code ids} restricts the result to
+     * products already matched by a search, {@code searchTerm} applies a LIKE match when
+     * no ranked ids are available.
+     */
+    record Filter(String category, String searchTerm, Collection<Long> ids, StockLevel stockLevel) {
+    }
+    
+    /**
+     * Selects only the given attributes of matching products, one map per row keyed by
+     * attribute name. Rows are ordered by {@code sortField} with id as tie-breaker; a null
+     * sort field orders by id.
+     */
+    List<Map<String, Object>> findProjected(Filter filter, List<String> fields, String sortField,
+                                            boolean ascending, int offset, int limit);
+    
+    long countMatching(Filter filter);
+}
@@ -0,0 +1,98 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Map<String, Object>> findProjected(Filter filter, List<String> fields, String sortField,
+                                                   boolean ascending, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        
+        // Only the requested columns go into the SELECT list
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            selections.add(product.get(field).alias(field));
+        }
+        
+        List<Order> orderBy = new ArrayList<>();
+        if (sortField != null && !sortField.equals("id")) {
+            Expression<?> sortPath = product.get(sortField);
+            orderBy.add(ascending ? cb.asc(sortPath) : cb.desc(sortPath));
+        }
+        boolean idAscending = sortField == null || !sortField.equals("id") || ascending;
+        orderBy.add(idAscending ? cb.asc(product.get("id")) : cb.desc(product.get("id")));
+        
+        query.multiselect(selections)
+            .where(buildPredicates(cb, product, filter))
+            .orderBy(orderBy);
+        
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    @Override
+    public long countMatching(Filter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        
+        query.select(cb.count(product)).where(buildPredicates(cb, product, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    private static Predicate[] buildPredicates(CriteriaBuilder cb, Root<Product> product, Filter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.category() != null) {
+            predicates.add(cb.equal(product.get("category"), filter.category()));
+        }
+        if (filter.ids() != null) {
+            predicates.add(filter.ids().isEmpty() ? cb.disjunction() : product.get("id").in(filter.ids()));
+        }
+        if (filter.searchTerm() != null) {
+            String pattern = ProductRepository.containsPattern(filter.searchTerm().toLowerCase(Locale.ROOT));
+            predicates.add(cb.or(
+                cb.like(cb.lower(product.get("name")), pattern, ProductRepository.LIKE_ESCAPE),
+                cb.like(cb.lower(product.get("description")), pattern, ProductRepository.LIKE_ESCAPE),
+                cb.like(cb.lower(product.get("sku")), pattern, ProductRepository.LIKE_ESCAPE)));
+        }
+        if (filter.stockLevel() == StockLevel.LOW) {
+            predicates.add(cb.greaterThan(product.get("stock"), 0));
+            predicates.add(cb.lessThanOrEqualTo(product.<Integer>get("stock"), product.<Integer>get("lowStockThreshold")));
+        } else if (filter.stockLevel() == StockLevel.OUT) {
+            predicates.add(cb.equal(product.get("stock"), 0));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
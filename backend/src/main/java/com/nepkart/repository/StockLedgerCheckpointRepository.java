@@ -0,0 +1,17 @@
+package com.nepkart.repository;
+
+import com.nepkart.model.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, Integer> {
+    
+    // Returns 0 when the segment (or a later one) was already applied
+    @Modifying
+    @Query("UPDATE StockLedgerCheckpoint c SET c.appliedSegment = :segment " +
+           "WHERE c.id = " + StockLedgerCheckpoint.SINGLETON_ID + " AND c.appliedSegment < :segment")
+    int advance(long segment);
+}
@@ -0,0 +1,123 @@
+package com.nepkart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON bodies of catalog responses, cached per catalog snapshot version.
+ *
+ * Each body is serialized once per version and its gzip variant is compressed once, on
+ * the first request that accepts it. A new snapshot version starts an empty generation,
+ * so product writes and stock changes invalidate every cached body at once.
+ */
+@Service
+public class CatalogResponseCache {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${nepkart.catalog.response-cache.max-entries:10000}")
+    private int maxEntries;
+
+    // Bodies smaller than this are sent uncompressed; gzip framing would outweigh the savings
+    @Value("${nepkart.catalog.response-cache.min-gzip-bytes:1024}")
+    private int minGzipBytes;
+
+    private volatile Generation generation = new Generation(-1);
+
+    /**
+     * @param key  identifies the response within a catalog version (e.g. "all", "category:Food")
+     * @param body produces the object to serialize on a cache miss
+     */
+    public Body get(long version, String key, Supplier<Object> body) {
+        Generation current = generation;
+        if (current.version != version) {
+            synchronized (this) {
+                if (generation.version < version) {
+                    generation = new Generation(version);
+                }
+                current = generation;
+            }
+            if (current.version != version) {
+                // A newer snapshot was published meanwhile; serve this one uncached
+                return new Body(serialize(body.get()), minGzipBytes);
+            }
+        }
+
+        Body cached = current.bodies.get(key);
+        if (cached == null) {
+            cached = new Body(serialize(body.get()), minGzipBytes);
+            if (current.bodies.size() < maxEntries) {
+                Body raced = current.bodies.putIfAbsent(key, cached);
+                if (raced != null) {
+                    cached = raced;
+                }
+            }
+        }
+        return cached;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize catalog response", e);
+        }
+    }
+
+    private static final class Generation {
+        private final long version;
+        private final Map<String, Body> bodies = new ConcurrentHashMap<>();
+
+        Generation(long version) {
+            this.version = version;
+        }
+    }
+
+    public static final class Body {
+        private final byte[] identity;
+        private final boolean compressible;
+        private volatile byte[] gzip;
+
+        Body(byte[] identity, int minGzipBytes) {
+            this.identity = identity;
+            this.compressible = identity.length >= minGzipBytes;
+        }
+
+        public byte[] identity() {
+            return identity;
+        }
+
+        /**
+         * @return the gzip-encoded body, or null when the body is too small to be worth it
+         */
+        public byte[] gzip() {
+            if (!compressible) {
+                return null;
+            }
+            byte[] encoded = gzip;
+            if (encoded == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 4 + 64);
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                    gzipOut.write(identity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                encoded = out.toByteArray();
+                gzip = encoded;
+            }
+            return encoded;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.nepkart.service;
+
+import com.nepkart.config.DatabaseVendor;
+import com.nepkart.model.Customer;
+import com.nepkart.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves checkout customers by normalized email. Known customers come from a bounded
+ * LRU cache with no database access; new ones are inserted or fetched with a single
+ * upsert, so concurrent first-time checkouts with the same email never fail.
+ *
+ * The upsert conflicts on the unique index over lower(email). Schemas built by Hibernate
+ * (ddl-auto=update) do not get that index, so it is created here at startup when missing.
+ */
+@Service
+public class CustomerResolver {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DatabaseVendor databaseVendor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, ResolvedCustomer> cache;
+
+    public CustomerResolver(@Value("${nepkart.customers.cache-size:10000}") int cacheSize) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResolvedCustomer> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void ensureEmailIndex() {
+        if (!databaseVendor.isPostgreSql()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_customers_email_lower ON customers (lower(email))");
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not create ux_customers_email_lower; emails differing only in case "
+                + "must be merged first (database/migrations/012_customers_email_lower_unique.sql)", e);
+        }
+    }
+
+    public ResolvedCustomer resolve(Customer customer) {
+        String email = normalizeEmail(customer.getEmail());
+
+        ResolvedCustomer cached;
+        synchronized (cache) {
+            cached = cache.get(email);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        customer.setEmail(email);
+        ResolvedCustomer resolved;
+        if (databaseVendor.isPostgreSql()) {
+            CustomerRepository.CustomerKey key = customerRepository.upsertByEmail(customer);
+            resolved = new ResolvedCustomer(key.getId(), key.getFirstName(), key.getLastName());
+        } else {
+            // Portable path for databases without ON CONFLICT; not safe against concurrent inserts
+            Customer existing = customerRepository.findByEmail(email)
+                .orElseGet(() -> customerRepository.save(customer));
+            resolved = new ResolvedCustomer(existing.getId(), existing.getFirstName(), existing.getLastName());
+        }
+
+        // Only cache once the row is known to be committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(email, resolved);
+                }
+            });
+        } else {
+            remember(email, resolved);
+        }
+        return resolved;
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void remember(String email, ResolvedCustomer resolved) {
+        synchronized (cache) {
+            cache.put(email, resolved);
+        }
+    }
+
+    public record ResolvedCustomer(Long id, String firstName, String lastName) {
+
+        public String fullName() {
+            return firstName + " " + lastName;
+        }
+    }
+}
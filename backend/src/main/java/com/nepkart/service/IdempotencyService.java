@@ -0,0 +1,295 @@
+package com.nepkart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nepkart.model.IdempotencyRecord;
+import com.nepkart.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key and scope.
+ *
+ * Keys are chosen by clients, so two customers can pick the same one; each key is only
+ * unique within its scope (for orders, the customer's normalized email).
+ *
+ * Completed responses are kept in the idempotency_keys table until their TTL expires and
+ * mirrored in a bounded in-memory cache for fast replays. Duplicates that arrive while the
+ * first request is still running on this node wait for its result; a duplicate in flight
+ * on another node gets 409 Conflict. Server errors are not stored, so the client may retry.
+ *
+ * While a request runs, its claim expires after a short lease rather than the full TTL, so a
+ * node that dies mid-request blocks the key only briefly. A successful response is stored in
+ * the same transaction as the request's own writes, so once an order commits a retry always
+ * replays it, even if the node dies right after. Requests are fingerprinted in a canonical form
+ * (map entries sorted by key), so reordered cart lines count as the same request.
+ */
+@Service
+public class IdempotencyService {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactional;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long waitTimeoutMs;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, StoredResponse> completed;
+
+    public IdempotencyService(PlatformTransactionManager transactionManager,
+                              @Value("${nepkart.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${nepkart.idempotency.lease-seconds:120}") long leaseSeconds,
+                              @Value("${nepkart.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+                              @Value("${nepkart.idempotency.cache-size:10000}") int cacheSize) {
+        this.transactional = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * @param scope  who the key belongs to; the same key under another scope is a different request
+     * @param action runs in a transaction that also stores its response when it succeeds
+     */
+    public ResponseEntity<?> execute(String scope, String clientKey, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        String key = scopedKey(scope, clientKey);
+        String requestHash = hash(request);
+
+        StoredResponse cached = completed.get(key);
+        if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+            return cached.replay(requestHash);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return awaitReplay(existing, requestHash);
+        }
+
+        try {
+            IdempotencyRecord record = idempotencyRecordRepository.findById(key)
+                .filter(r -> r.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElse(null);
+            if (record != null) {
+                if (record.getStatus() == IdempotencyRecord.Status.IN_PROGRESS) {
+                    mine.complete(null);
+                    return conflict("Request with this Idempotency-Key is already in progress");
+                }
+                StoredResponse stored = StoredResponse.from(record);
+                completed.put(key, stored);
+                mine.complete(stored);
+                return stored.replay(requestHash);
+            }
+
+            if (!claim(key, requestHash)) {
+                mine.complete(null);
+                return conflict("Request with this Idempotency-Key is already in progress");
+            }
+
+            Outcome outcome;
+            try {
+                outcome = transactional.execute(status -> {
+                    ResponseEntity<?> response = action.get();
+                    if (response.getStatusCode().is2xxSuccessful() && !status.isRollbackOnly()) {
+                        return new Outcome(response, complete(key, requestHash, response));
+                    }
+                    // A failed action must not leave partial writes; its response is handled below
+                    status.setRollbackOnly();
+                    return new Outcome(response, null);
+                });
+            } catch (RuntimeException e) {
+                release(key);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+
+            ResponseEntity<?> response = outcome.response();
+            StoredResponse stored = outcome.stored();
+            if (stored == null) {
+                if (response.getStatusCode().is5xxServerError()) {
+                    release(key);
+                    mine.complete(null);
+                    return response;
+                }
+                // Client errors changed nothing, so storing them separately cannot disagree with the data
+                stored = requiresNew.execute(status -> complete(key, requestHash, response));
+            }
+            completed.put(key, stored);
+            mine.complete(stored);
+            return response;
+        } finally {
+            if (!mine.isDone()) {
+                mine.complete(null);
+            }
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${nepkart.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (completed) {
+            completed.values().removeIf(stored -> !stored.expiresAt().isAfter(now));
+        }
+        requiresNew.executeWithoutResult(status -> idempotencyRecordRepository.deleteExpired(now));
+    }
+
+    private ResponseEntity<?> awaitReplay(CompletableFuture<StoredResponse> pending, String requestHash) {
+        try {
+            StoredResponse stored = pending.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            if (stored == null) {
+                return conflict("Original request with this Idempotency-Key did not complete");
+            }
+            return stored.replay(requestHash);
+        } catch (TimeoutException e) {
+            return conflict("Request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            return conflict("Original request with this Idempotency-Key failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return conflict("Interrupted while waiting for original request");
+        }
+    }
+
+    // Inserts the IN_PROGRESS marker, valid for one lease, in its own transaction; false if another node got there first
+    private boolean claim(String key, String requestHash) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                idempotencyRecordRepository.deleteIfExpired(key, now);
+                idempotencyRecordRepository.insertClaim(key, requestHash, now, now.plus(lease));
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void release(String key) {
+        requiresNew.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(key));
+    }
+
+    /**
+     * The stored form of a client's key: a digest of the scope, then the key. The digest keeps
+     * the column width fixed however long the scope is.
+     */
+    static String scopedKey(String scope, String clientKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] scopeHash = digest.digest((scope == null ? "" : scope).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(scopeHash, 0, 16) + ":" + clientKey;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Marks the claim COMPLETED with the response, in the caller's transaction
+    private StoredResponse complete(String key, String requestHash, ResponseEntity<?> response) {
+        String body;
+        try {
+            body = response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize response for Idempotency-Key " + key, e);
+        }
+        String errorMessage = response.getHeaders().getFirst("X-Error-Message");
+
+        IdempotencyRecord record = idempotencyRecordRepository.findById(key)
+            .orElseGet(() -> new IdempotencyRecord(key, requestHash, LocalDateTime.now().plus(ttl)));
+        record.setStatus(IdempotencyRecord.Status.COMPLETED);
+        record.setExpiresAt(LocalDateTime.now().plus(ttl));
+        record.setResponseStatus(response.getStatusCode().value());
+        record.setResponseBody(body);
+        record.setErrorMessage(errorMessage);
+        idempotencyRecordRepository.save(record);
+        return StoredResponse.from(record);
+    }
+
+    private static ResponseEntity<?> conflict(String message) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .header("X-Error-Message", message)
+            .build();
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] canonical = objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsBytes(request);
+            return HexFormat.of().formatHex(digest.digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to fingerprint request", e);
+        }
+    }
+
+    private record Outcome(ResponseEntity<?> response, StoredResponse stored) {
+    }
+
+    private record StoredResponse(String requestHash, int status, String body, String errorMessage,
+                                  LocalDateTime expiresAt) {
+
+        static StoredResponse from(IdempotencyRecord record) {
+            return new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                record.getResponseBody(), record.getErrorMessage(), record.getExpiresAt());
+        }
+
+        ResponseEntity<?> replay(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .header("X-Error-Message", "Idempotency-Key was already used with a different request")
+                    .build();
+            }
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+                .header("Idempotent-Replayed", "true");
+            if (errorMessage != null) {
+                builder.header("X-Error-Message", errorMessage);
+            }
+            if (body == null) {
+                return builder.build();
+            }
+            return builder.contentType(MediaType.APPLICATION_JSON)
+                .body(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.nepkart.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<Shortage> shortages;
+
+    public InsufficientStockException(List<Shortage> shortages) {
+        super("Insufficient stock: " + shortages.stream()
+            .map(Shortage::toString)
+            .collect(Collectors.joining("; ")));
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<Shortage> getShortages() {
+        return shortages;
+    }
+
+    public record Shortage(Long productId, String productName, int available, int requested) {
+
+        @Override
+        public String toString() {
+            return productName + " (id " + productId + ") - Available: " + available + ", Requested: " + requested;
+        }
+    }
+}
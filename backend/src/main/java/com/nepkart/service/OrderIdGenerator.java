@@ -0,0 +1,10 @@
+package com.nepkart.service;
+
+/**
+ * Produces the public order number stored in {@code orders.order_id}.
+ * Implementations must be unique across threads and nodes without a database round trip.
+ */
+public interface OrderIdGenerator {
+
+    String nextOrderId();
+}
@@ -1,19 +1,35 @@
 package com.nepkart.service;
 
+import com.nepkart.dto.BulkStatusUpdateRequestDTO;
+import com.nepkart.dto.BulkStatusUpdateResultDTO;
+import com.nepkart.dto.OrderPageDTO;
+import com.nepkart.dto.OrderSummaryPageDTO;
 import com.nepkart.model.*;
 import com.nepkart.repository.CustomerRepository;
 import com.nepkart.repository.OrderRepository;
-import com.nepkart.repository.ProductRepository;
+import com.nepkart.repository.OrderSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,11 +38,14 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
     
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    
     @Autowired
     private CustomerRepository customerRepository;
     
     @Autowired
-    private ProductRepository productRepository;
+    private CustomerResolver customerResolver;
     
     @Autowired
     private ProductService productService;
@@ -37,9 +56,32 @@ public class OrderService {
     @Autowired
     private TaxService taxService;
     
+    @Autowired
+    private ZipJurisdictionResolver zipJurisdictionResolver;
+    
+    @Autowired
+    private OrderIdGenerator orderIdGenerator;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${nepkart.orders.default-page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${nepkart.orders.max-page-size:500}")
+    private int maxPageSize;
+    
+    @Value("${nepkart.orders.max-bulk-size:1000}")
+    private int maxBulkSize;
+    
+    // Orders fetched per keyset chunk while streaming
+    private static final int STREAM_CHUNK_SIZE = 100;
+    
     public List<Order> getAllOrders() {
         try {
-            return orderRepository.findAll();
+            List<Order> orders = orderRepository.findAll();
+            loadItems(orders);
+            return orders;
         } catch (Exception e) {
             System.err.println("Error in getAllOrders: " + e.getMessage());
             e.printStackTrace();
@@ -47,8 +89,50 @@ public class OrderService {
         }
     }
     
+    @Transactional(readOnly = true)
+    public OrderPageDTO getOrderPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                     String cursor, Integer size) {
+        KeysetPage<Order> page = fetchPage(cursor, size,
+            (cursorDate, cursorId, limit) -> orderRepository.findPage(status, from, to, cursorDate, cursorId, limit),
+            Order::getOrderDate, Order::getId);
+        loadItems(page.rows());
+        return new OrderPageDTO(page.rows(), page.nextCursor());
+    }
+    
+    @Transactional(readOnly = true)
+    public OrderSummaryPageDTO getOrderSummaryPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                                   String cursor, Integer size) {
+        KeysetPage<OrderSummary> page = fetchPage(cursor, size,
+            (cursorDate, cursorId, limit) -> orderSummaryRepository.findPage(status, from, to, cursorDate, cursorId, limit),
+            OrderSummary::getOrderDate, OrderSummary::getId);
+        return new OrderSummaryPageDTO(page.rows(), page.nextCursor());
+    }
+    
+    /**
+     * Hands every matching order to the consumer, walking the keyset in fixed-size chunks
+     * and clearing the persistence context between them so memory stays flat. Each chunk
+     * costs one query for orders and customers plus batch fetches for items and products.
+     */
+    @Transactional(readOnly = true)
+    public void streamOrders(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                             Consumer<Order> consumer) {
+        LocalDateTime cursorDate = null;
+        Long cursorId = null;
+        while (true) {
+            List<Order> chunk = orderRepository.findPage(status, from, to, cursorDate, cursorId, STREAM_CHUNK_SIZE);
+            chunk.forEach(consumer);
+            if (chunk.size() < STREAM_CHUNK_SIZE) {
+                return;
+            }
+            Order last = chunk.get(chunk.size() - 1);
+            cursorDate = last.getOrderDate();
+            cursorId = last.getId();
+            entityManager.clear();
+        }
+    }
+    
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+        return orderRepository.findDetailById(id);
     }
     
     public Optional<Order> getOrderByOrderId(String orderId) {
@@ -56,59 +140,49 @@ public class OrderService {
     }
     
     public Order createOrder(Customer customer, Map<Long, Integer> productQuantities) {
-        // Create or find customer
-        Customer existingCustomer = customerRepository.findByEmail(customer.getEmail())
-            .orElse(customer);
-        
-        if (existingCustomer.getId() == null) {
-            existingCustomer = customerRepository.save(existingCustomer);
-        }
+        // Resolve the customer from cache or with a single upsert
+        CustomerResolver.ResolvedCustomer resolved = customerResolver.resolve(customer);
+        Customer existingCustomer = customerRepository.getReferenceById(resolved.id());
         
         // Generate unique order ID
-        String orderId = "NEP-" + System.currentTimeMillis();
+        String orderId = orderIdGenerator.nextOrderId();
         
         // Create order
         Order order = new Order(orderId, existingCustomer);
         
-        // Add order items and decrement stock
-        BigDecimal subtotal = BigDecimal.ZERO;
-        for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
-            Long productId = entry.getKey();
-            Integer quantity = entry.getValue();
-            
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
-            
-            if (product.getStock() < quantity) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName() + 
-                    ". Available: " + product.getStock() + ", Requested: " + quantity);
-            }
+        // Reserve stock for the whole cart and load all products in one query
+        List<Product> products = productService.reserveStock(productQuantities);
+        
+        // Add order items
+        // Amounts are computed in minor units and converted once for the entity
+        long subtotal = 0;
+        for (Product product : products) {
+            Integer quantity = productQuantities.get(product.getId());
             
             OrderItem orderItem = new OrderItem(order, product, quantity);
             order.addOrderItem(orderItem);
             
-            subtotal = subtotal.add(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
-            
-            // Decrement stock immediately
-            productService.decrementStock(productId, quantity);
+            subtotal = Money.plus(subtotal, Money.times(product.getPriceMinor(), quantity));
         }
         
-        // Calculate shipping
-        List<Product> products = productQuantities.keySet().stream()
-            .map(id -> productRepository.findById(id).orElse(null))
-            .filter(p -> p != null)
-            .toList();
+        // Calculate shipping and tax for the destination state, as quotes do
+        String state = zipJurisdictionResolver.destinationState(customer.getState(), customer.getZipCode());
+        long shippingCost = shippingService.calculateShippingCostMinor(products, productQuantities, state);
+        long tax = taxService.calculateTaxMinorForState(subtotal, state);
         
-        BigDecimal shippingCost = shippingService.calculateShippingCostByProducts(products, productQuantities);
-        BigDecimal tax = taxService.calculateTax(subtotal, customer.getZipCode());
-        
-        order.setSubtotal(subtotal);
-        order.setShippingCost(shippingCost);
-        order.setTax(tax);
-        order.calculateTotal();
+        order.setSubtotal(Money.toDecimal(subtotal));
+        order.setShippingCost(Money.toDecimal(shippingCost));
+        order.setTax(Money.toDecimal(tax));
+        // Summed here from the minor amounts rather than by calculateTotal re-reading every line
+        order.setTotal(Money.toDecimal(Money.plus(Money.plus(subtotal, shippingCost), tax)));
         order.setStatus(Order.OrderStatus.RECEIVED); // New orders start as RECEIVED
         
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        // persist, not save: the summary has an assigned id, so save would merge and SELECT it first
+        entityManager.persist(new OrderSummary(saved, resolved.fullName()));
+        // The response carries the customer, and open-in-view is off, so load it while the session is open
+        Hibernate.initialize(existingCustomer);
+        return saved;
     }
     
     public Order updateOrderStatus(Long id, Order.OrderStatus status) {
@@ -116,14 +190,145 @@ public class OrderService {
             .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
         
         order.setStatus(status);
+        orderSummaryRepository.updateStatus(id, status);
         return orderRepository.save(order);
     }
     
+    /**
+     * Applies one status transition to many orders: a locking select to learn current
+     * statuses, then a single set-based UPDATE per source status (one in practice, since
+     * transitions are one step forward) plus the matching order_summary update.
+     */
+    public BulkStatusUpdateResultDTO bulkUpdateStatus(BulkStatusUpdateRequestDTO request) {
+        Order.OrderStatus target = request.getStatus();
+        
+        List<Long> ids;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            if (ids.size() > maxBulkSize) {
+                throw new RuntimeException("Too many orders in one bulk update: " + ids.size() + " (max " + maxBulkSize + ")");
+            }
+        } else if (request.getFromStatus() != null) {
+            ids = orderRepository.findIds(request.getFromStatus(), request.getFrom(), request.getTo(), maxBulkSize);
+        } else {
+            throw new RuntimeException("Either ids or fromStatus is required");
+        }
+        if (ids.isEmpty()) {
+            return new BulkStatusUpdateResultDTO(target, 0, List.of());
+        }
+        
+        Map<Long, Order.OrderStatus> current = orderRepository.lockStatusesByIdIn(ids).stream()
+            .collect(Collectors.toMap(OrderRepository.OrderStatusView::getId, OrderRepository.OrderStatusView::getStatus));
+        
+        List<BulkStatusUpdateResultDTO.Outcome> results = new ArrayList<>(ids.size());
+        Map<Order.OrderStatus, List<Long>> bySource = new EnumMap<>(Order.OrderStatus.class);
+        for (Long id : ids) {
+            Order.OrderStatus status = current.get(id);
+            BulkStatusUpdateResultDTO.Result result;
+            if (status == null) {
+                result = BulkStatusUpdateResultDTO.Result.NOT_FOUND;
+            } else if (status == target) {
+                result = BulkStatusUpdateResultDTO.Result.UNCHANGED;
+            } else if (status.canTransitionTo(target)) {
+                result = BulkStatusUpdateResultDTO.Result.UPDATED;
+                bySource.computeIfAbsent(status, s -> new ArrayList<>()).add(id);
+            } else {
+                result = BulkStatusUpdateResultDTO.Result.INVALID_TRANSITION;
+            }
+            results.add(new BulkStatusUpdateResultDTO.Outcome(id, result, status));
+        }
+        
+        int updated = 0;
+        List<Long> updatedIds = new ArrayList<>();
+        for (Map.Entry<Order.OrderStatus, List<Long>> entry : bySource.entrySet()) {
+            updated += orderRepository.transitionStatus(entry.getValue(), entry.getKey(), target);
+            updatedIds.addAll(entry.getValue());
+        }
+        if (!updatedIds.isEmpty()) {
+            orderSummaryRepository.updateStatusForIds(updatedIds, target);
+        }
+        return new BulkStatusUpdateResultDTO(target, updated, results);
+    }
+    
     public void deleteOrder(Long id) {
-        Order order = orderRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
+        // Two set-based deletes instead of loading the order graph to cascade
+        orderSummaryRepository.deleteSummaryById(id);
+        orderRepository.deleteItemsByOrderId(id);
+        if (orderRepository.deleteOrderById(id) == 0) {
+            throw new RuntimeException("Order not found with id: " + id);
+        }
+    }
+    
+    /**
+     * Initializes the items and their products for orders loaded with the summary graph,
+     * so they can be serialized after the transaction ends. Batch fetching loads them in
+     * one statement per level for up to hibernate.default_batch_fetch_size orders.
+     */
+    private static void loadItems(List<Order> orders) {
+        for (Order order : orders) {
+            Hibernate.initialize(order.getOrderItems());
+        }
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                Hibernate.initialize(item.getProduct());
+            }
+        }
+    }
+    
+    /**
+     * Reads one keyset page in (orderDate DESC, id DESC) order, starting after the cursor.
+     * One extra row is fetched to learn whether another page exists.
+     */
+    private <T> KeysetPage<T> fetchPage(String cursor, Integer size, KeysetQuery<T> query,
+                                        Function<T, LocalDateTime> orderDate, Function<T, Long> id) {
+        int pageSize = resolvePageSize(size);
+        Cursor position = decodeCursor(cursor);
+        List<T> rows = position == null
+            ? query.find(null, null, pageSize + 1)
+            : query.find(position.orderDate(), position.id(), pageSize + 1);
         
-        // OrderItems will be deleted automatically due to cascade
-        orderRepository.delete(order);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            T last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(orderDate.apply(last), id.apply(last));
+        }
+        return new KeysetPage<>(rows, nextCursor);
+    }
+    
+    private static String encodeCursor(LocalDateTime orderDate, Long id) {
+        String raw = orderDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private int resolvePageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+    
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new Cursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface KeysetQuery<T> {
+        List<T> find(LocalDateTime cursorDate, Long cursorId, int limit);
+    }
+    
+    private record Cursor(LocalDateTime orderDate, Long id) {
+    }
+    
+    private record KeysetPage<T>(List<T> rows, String nextCursor) {
     }
 }
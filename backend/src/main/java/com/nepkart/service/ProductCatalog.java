@@ -0,0 +1,166 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable, versioned copy of the product catalog for read endpoints.
+ *
+ * Readers take the current snapshot without locking or touching the database. Writers
+ * (product create/update/delete and committed stock changes) build a new snapshot from
+ * the previous one and publish it with a higher version, so a snapshot never changes
+ * once handed out.
+ */
+@Service
+public class ProductCatalog {
+
+    // Distinguishes versions from different JVMs so ETags never collide across nodes or restarts
+    private static final String INSTANCE_ID = UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Present only when nepkart.inventory.engine=ledger
+    @Autowired(required = false)
+    private StockLedger stockLedger;
+
+    private volatile Snapshot current;
+
+    // Survives invalidation so a reloaded snapshot never reuses an earlier version
+    private long lastVersion;
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    current = new Snapshot(++lastVersion, productRepository.findAll().stream().map(this::loaded).toList());
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    public synchronized void upsert(Product product) {
+        if (current == null) {
+            return; // first read loads everything
+        }
+        List<Product> products = new ArrayList<>(current.products());
+        products.removeIf(p -> p.getId().equals(product.getId()));
+        products.add(copy(product));
+        publish(products);
+    }
+
+    public synchronized void remove(Long productId) {
+        if (current == null) {
+            return;
+        }
+        List<Product> products = new ArrayList<>(current.products());
+        if (products.removeIf(p -> p.getId().equals(productId))) {
+            publish(products);
+        }
+    }
+
+    /**
+     * Sets committed stock levels by id. Levels are absolute, so one the snapshot already
+     * reflects (say, loaded after the commit) publishes nothing.
+     */
+    public synchronized void setStock(Map<Long, Integer> levels) {
+        if (current == null || levels.isEmpty()) {
+            return;
+        }
+        List<Product> products = new ArrayList<>(current.products().size());
+        boolean changed = false;
+        for (Product product : current.products()) {
+            Integer level = levels.get(product.getId());
+            if (level == null || level.equals(product.getStock())) {
+                products.add(product);
+            } else {
+                Product updated = copy(product);
+                updated.setStock(level);
+                products.add(updated);
+                changed = true;
+            }
+        }
+        if (changed) {
+            publish(products);
+        }
+    }
+
+    public synchronized void invalidate() {
+        current = null;
+    }
+
+    private void publish(List<Product> products) {
+        current = new Snapshot(++lastVersion, products);
+    }
+
+    // Rows lag behind unflushed ledger reservations, so the ledger's count wins
+    private Product loaded(Product source) {
+        Product copy = copy(source);
+        if (stockLedger != null) {
+            copy.setStock(stockLedger.availableOr(copy.getId(), copy.getStock()));
+        }
+        return copy;
+    }
+
+    private static Product copy(Product source) {
+        Product copy = new Product(source.getSku(), source.getName(), source.getCategory(), source.getPrice(),
+            source.getStock(), source.getLowStockThreshold(), source.getWeight(), source.getOrigin());
+        copy.setId(source.getId());
+        copy.setDescription(source.getDescription());
+        copy.setImageUrl(source.getImageUrl());
+        return copy;
+    }
+
+    public record Snapshot(long version, List<Product> products) {
+
+        public Snapshot {
+            List<Product> sorted = new ArrayList<>(products);
+            sorted.sort(Comparator.comparing(Product::getId));
+            products = Collections.unmodifiableList(sorted);
+        }
+
+        public String etag() {
+            return "\"" + INSTANCE_ID + "-" + version + "\"";
+        }
+
+        // The gzip-encoded representation is a different body, so it needs its own strong tag
+        public String gzipEtag() {
+            return "\"" + INSTANCE_ID + "-" + version + "-gzip\"";
+        }
+
+        public Optional<Product> findById(Long id) {
+            int low = 0;
+            int high = products.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = products.get(mid).getId().compareTo(id);
+                if (cmp == 0) {
+                    return Optional.of(products.get(mid));
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return Optional.empty();
+        }
+
+        public List<Product> byCategory(String category) {
+            return products.stream().filter(p -> category.equals(p.getCategory())).toList();
+        }
+    }
+}
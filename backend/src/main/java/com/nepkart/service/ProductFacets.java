@@ -0,0 +1,264 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.ProductFacetsDTO;
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet counts for catalog browsing: per category, per origin, per price bucket, with
+ * separate in-stock-only counts.
+ *
+ * Category and origin strings are dictionary-encoded to small integer ids, and each
+ * product is kept as a row of integer codes. Counters are adjusted as products are
+ * created, updated, deleted and sold, so unfiltered facets never scan the catalog;
+ * drill-down facets (with a category or origin selected) scan the codes with integer
+ * comparisons only.
+ */
+@Service
+public class ProductFacets {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Present only when nepkart.inventory.engine=ledger
+    @Autowired(required = false)
+    private StockLedger stockLedger;
+
+    // Upper bounds of the price buckets; the last bucket is open-ended
+    private final BigDecimal[] priceBounds;
+
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary origins = new Dictionary();
+    private final Map<Long, Codes> products = new HashMap<>();
+
+    // [0] counts every product, [1] only in-stock products
+    private final Counts[] counts = { new Counts(), new Counts() };
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public ProductFacets(@Value("${nepkart.facets.price-buckets:10,25,50,100}") String priceBuckets) {
+        this.priceBounds = Arrays.stream(priceBuckets.split(","))
+            .map(String::trim)
+            .map(BigDecimal::new)
+            .sorted()
+            .toArray(BigDecimal[]::new);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Loaded under the write lock: an upsert or setStock arriving mid-load waits and applies on top
+            List<Product> all = productRepository.findAll();
+            products.clear();
+            counts[0] = new Counts();
+            counts[1] = new Counts();
+            // Rows lag behind unflushed ledger reservations, so the ledger's count wins
+            for (Product product : all) {
+                int stock = stockOf(product);
+                addLocked(product, stockLedger == null ? stock : stockLedger.availableOr(product.getId(), stock));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            addLocked(product, stockOf(product));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets committed stock levels; only products crossing zero move between the all and
+     * in-stock counts.
+     */
+    public void setStock(Map<Long, Integer> levels) {
+        lock.writeLock().lock();
+        try {
+            levels.forEach((id, level) -> {
+                Codes codes = products.get(id);
+                if (codes == null) {
+                    return;
+                }
+                Codes changed = new Codes(codes.category, codes.origin, codes.priceBucket, level);
+                if (codes.inStock() != changed.inStock()) {
+                    counts[1].add(codes, changed.inStock() ? 1 : -1);
+                }
+                products.put(id, changed);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param category selected category name, or null for all
+     * @param origin   selected origin name, or null for all
+     * @param inStock  count only products with stock left
+     */
+    public ProductFacetsDTO getFacets(String category, String origin, boolean inStock) {
+        if (!ready) {
+            rebuild();
+        }
+        lock.readLock().lock();
+        try {
+            Counts view;
+            if (category == null && origin == null) {
+                view = counts[inStock ? 1 : 0];
+            } else {
+                int categoryId = category == null ? -1 : categories.find(category);
+                int originId = origin == null ? -1 : origins.find(origin);
+                view = new Counts();
+                // An unknown name matches nothing rather than everything
+                if ((category == null || categoryId >= 0) && (origin == null || originId >= 0)) {
+                    for (Codes codes : products.values()) {
+                        if ((categoryId < 0 || codes.category == categoryId)
+                                && (originId < 0 || codes.origin == originId)
+                                && (!inStock || codes.inStock())) {
+                            view.add(codes, 1);
+                        }
+                    }
+                }
+            }
+            return new ProductFacetsDTO(view.total, values(categories, view.categories),
+                values(origins, view.origins), priceValues(view.priceBuckets));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Product product, int stock) {
+        Codes codes = new Codes(categories.encode(product.getCategory()), origins.encode(product.getOrigin()),
+            priceBucket(product.getPrice()), stock);
+        products.put(product.getId(), codes);
+        counts[0].add(codes, 1);
+        if (codes.inStock()) {
+            counts[1].add(codes, 1);
+        }
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() == null ? 0 : product.getStock();
+    }
+
+    private void removeLocked(Long productId) {
+        Codes codes = products.remove(productId);
+        if (codes == null) {
+            return;
+        }
+        counts[0].add(codes, -1);
+        if (codes.inStock()) {
+            counts[1].add(codes, -1);
+        }
+    }
+
+    private int priceBucket(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < priceBounds.length && price.compareTo(priceBounds[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<ProductFacetsDTO.Value> values(Dictionary dictionary, int[] counts) {
+        List<ProductFacetsDTO.Value> values = new ArrayList<>();
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0) {
+                values.add(new ProductFacetsDTO.Value(id, dictionary.names.get(id), counts[id]));
+            }
+        }
+        values.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return values;
+    }
+
+    private List<ProductFacetsDTO.Value> priceValues(int[] counts) {
+        List<ProductFacetsDTO.Value> values = new ArrayList<>();
+        for (int bucket = 0; bucket <= priceBounds.length; bucket++) {
+            String label;
+            if (bucket == 0) {
+                label = "under " + priceBounds[0].toPlainString();
+            } else if (bucket == priceBounds.length) {
+                label = priceBounds[bucket - 1].toPlainString() + " and above";
+            } else {
+                label = priceBounds[bucket - 1].toPlainString() + " - " + priceBounds[bucket].toPlainString();
+            }
+            values.add(new ProductFacetsDTO.Value(bucket, label, bucket < counts.length ? counts[bucket] : 0));
+        }
+        return values;
+    }
+
+    // Values are never removed, so ids stay stable for the lifetime of the process
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int encode(String name) {
+            return ids.computeIfAbsent(name, n -> {
+                names.add(n);
+                return names.size() - 1;
+            });
+        }
+
+        int find(String name) {
+            return ids.getOrDefault(name, -1);
+        }
+    }
+
+    private record Codes(int category, int origin, int priceBucket, int stock) {
+
+        boolean inStock() {
+            return stock > 0;
+        }
+    }
+
+    private static final class Counts {
+        private int total;
+        private int[] categories = new int[8];
+        private int[] origins = new int[8];
+        private int[] priceBuckets = new int[8];
+
+        void add(Codes codes, int delta) {
+            total += delta;
+            categories = increment(categories, codes.category, delta);
+            origins = increment(origins, codes.origin, delta);
+            priceBuckets = increment(priceBuckets, codes.priceBucket, delta);
+        }
+
+        private static int[] increment(int[] counts, int index, int delta) {
+            if (index >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+            }
+            counts[index] += delta;
+            return counts;
+        }
+    }
+}
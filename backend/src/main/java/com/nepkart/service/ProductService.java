@@ -1,13 +1,31 @@
 package com.nepkart.service;
 
+import com.nepkart.config.DatabaseVendor;
+import com.nepkart.dto.ProductFacetsDTO;
+import com.nepkart.dto.ProductPageDTO;
+import com.nepkart.dto.ProductSuggestionDTO;
 import com.nepkart.model.Product;
 import com.nepkart.repository.ProductRepository;
+import com.nepkart.repository.ProductRepositoryCustom;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -16,8 +34,50 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
     
+    // Present only when nepkart.search.backend=memory (the default)
+    @Autowired(required = false)
+    private ProductSearchIndex searchIndex;
+    
+    @Value("${nepkart.search.backend:memory}")
+    private String searchBackend;
+    
+    @Value("${nepkart.search.max-results:200}")
+    private int maxSearchResults;
+    
+    @Autowired
+    private DatabaseVendor databaseVendor;
+    
+    // Present only when nepkart.inventory.engine=ledger
+    @Autowired(required = false)
+    private StockLedger stockLedger;
+    
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private ProductFacets productFacets;
+    
+    @Autowired
+    private StockAlertMonitor stockAlertMonitor;
+    
+    @Autowired
+    private ProductSuggester productSuggester;
+    
+    @Autowired
+    private QuoteCache quoteCache;
+    
+    @Value("${nepkart.products.default-page-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${nepkart.products.max-page-size:100}")
+    private int maxPageSize;
+    
+    public ProductCatalog.Snapshot getCatalogSnapshot() {
+        return productCatalog.snapshot();
+    }
+    
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return productCatalog.snapshot().products();
     }
     
     public Optional<Product> getProductById(Long id) {
@@ -29,28 +89,218 @@ public class ProductService {
     }
     
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+        return productCatalog.snapshot().byCategory(category);
     }
     
+    // At most nepkart.search.max-results matches, whichever backend answers
     public List<Product> searchProducts(String searchTerm) {
-        return productRepository.searchProducts(searchTerm);
+        if ("postgres".equals(searchBackend)) {
+            return searchDatabase(searchTerm);
+        }
+        if (searchIndex == null || !searchIndex.isReady()) {
+            return productRepository.searchProducts(searchTerm, PageRequest.of(0, maxSearchResults));
+        }
+        // Rank from the index, then load just the top matching rows by primary key
+        List<Long> ids = searchIndex.search(searchTerm);
+        if (ids.size() > maxSearchResults) {
+            ids = ids.subList(0, maxSearchResults);
+        }
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+    
+    // Full-text with prefix terms, then trigram similarity for typos; LIKE on non-Postgres databases
+    private List<Product> searchDatabase(String searchTerm) {
+        if (!databaseVendor.isPostgreSql()) {
+            return productRepository.searchProductsIgnoreCase(searchTerm.trim(), PageRequest.of(0, maxSearchResults));
+        }
+        List<String> tokens = ProductSearchIndex.tokenize(searchTerm);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String tsQuery = tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+        List<Product> products = productRepository.searchFullText(tsQuery, maxSearchResults);
+        if (products.isEmpty()) {
+            products = productRepository.searchTrigram(String.join(" ", tokens), maxSearchResults);
+        }
+        return products;
+    }
+    
+    /**
+     * One page of products with only the requested fields selected from the database.
+     * Search results keep relevance order unless an explicit sort is given.
+     *
+     * @param sort   attribute name, optionally followed by {@code ,asc} or {@code ,desc}
+     * @param fields comma-separated attribute names; id is always included, null selects all
+     */
+    @Transactional(readOnly = true)
+    public ProductPageDTO getProductPage(String category, String search, ProductRepositoryCustom.StockLevel stockLevel,
+                                         Integer page, Integer size, String sort, String fields) {
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new RuntimeException("Page must not be negative");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        
+        List<String> requested = parseFields(fields);
+        // Derived flags need the stock columns even if they are not requested themselves
+        List<String> selected = new ArrayList<>(ProductRepositoryCustom.FIELDS.stream()
+            .filter(requested::contains)
+            .toList());
+        boolean derived = requested.contains("lowStock") || requested.contains("outOfStock");
+        if (derived) {
+            for (String column : List.of("stock", "lowStockThreshold")) {
+                if (!selected.contains(column)) {
+                    selected.add(column);
+                }
+            }
+        }
+        
+        String sortField = null;
+        boolean ascending = true;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            sortField = parts[0].trim();
+            if (!ProductRepositoryCustom.SORTABLE_FIELDS.contains(sortField)) {
+                throw new RuntimeException("Cannot sort by: " + sortField);
+            }
+            if (parts.length > 1) {
+                String direction = parts[1].trim();
+                if (direction.equalsIgnoreCase("desc")) {
+                    ascending = false;
+                } else if (!direction.equalsIgnoreCase("asc")) {
+                    throw new RuntimeException("Invalid sort direction: " + direction);
+                }
+            }
+        }
+        
+        String searchTerm = search == null || search.isBlank() ? null : search.trim();
+        List<Long> rankedIds = searchTerm == null ? null : rankedSearchIds(searchTerm);
+        ProductRepositoryCustom.Filter filter = new ProductRepositoryCustom.Filter(
+            category == null || category.isEmpty() ? null : category,
+            rankedIds == null ? searchTerm : null,
+            rankedIds, stockLevel);
+        
+        List<Map<String, Object>> rows;
+        long total;
+        if (rankedIds != null && sortField == null) {
+            // Relevance order: narrow the ranked ids by the other filters, then load only this page
+            Set<Long> matching = productRepository.findProjected(filter, List.of("id"), null, true, 0, rankedIds.size())
+                .stream().map(row -> (Long) row.get("id")).collect(Collectors.toSet());
+            List<Long> ordered = rankedIds.stream().filter(matching::contains).toList();
+            total = ordered.size();
+            int from = (int) Math.min((long) pageNumber * pageSize, ordered.size());
+            List<Long> pageIds = ordered.subList(from, Math.min(from + pageSize, ordered.size()));
+            Map<Object, Map<String, Object>> byId = productRepository.findProjected(
+                    new ProductRepositoryCustom.Filter(null, null, pageIds, null), selected, null, true, 0, pageSize)
+                .stream().collect(Collectors.toMap(row -> row.get("id"), Function.identity()));
+            rows = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        } else {
+            total = productRepository.countMatching(filter);
+            rows = productRepository.findProjected(filter, selected, sortField, ascending,
+                (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE), pageSize);
+        }
+        
+        if (derived) {
+            for (Map<String, Object> row : rows) {
+                int stock = (Integer) row.get("stock");
+                int threshold = (Integer) row.get("lowStockThreshold");
+                if (requested.contains("outOfStock")) {
+                    row.put("outOfStock", stock == 0);
+                }
+                if (requested.contains("lowStock")) {
+                    row.put("lowStock", stock > 0 && stock <= threshold);
+                }
+                row.keySet().retainAll(requested);
+            }
+        }
+        return new ProductPageDTO(rows, pageNumber, pageSize, total);
+    }
+    
+    private static List<String> parseFields(String fields) {
+        List<String> all = new ArrayList<>(ProductRepositoryCustom.FIELDS);
+        all.add("outOfStock");
+        all.add("lowStock");
+        if (fields == null || fields.isBlank()) {
+            return all;
+        }
+        List<String> requested = new ArrayList<>(List.of("id"));
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || requested.contains(name)) {
+                continue;
+            }
+            if (!all.contains(name)) {
+                throw new RuntimeException("Unknown product field: " + name);
+            }
+            requested.add(name);
+        }
+        return requested;
+    }
+    
+    // Ranked ids from the configured search backend, or null when only a LIKE match is available
+    private List<Long> rankedSearchIds(String searchTerm) {
+        if ("postgres".equals(searchBackend)) {
+            if (!databaseVendor.isPostgreSql()) {
+                return null;
+            }
+            List<String> tokens = ProductSearchIndex.tokenize(searchTerm);
+            if (tokens.isEmpty()) {
+                return List.of();
+            }
+            String tsQuery = tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+            List<Long> ids = productRepository.searchFullTextIds(tsQuery, maxSearchResults);
+            return ids.isEmpty() ? productRepository.searchTrigramIds(String.join(" ", tokens), maxSearchResults) : ids;
+        }
+        if (searchIndex == null || !searchIndex.isReady()) {
+            return null;
+        }
+        List<Long> ids = searchIndex.search(searchTerm);
+        return ids.size() > maxSearchResults ? ids.subList(0, maxSearchResults) : ids;
     }
     
     public List<Product> getLowStockProducts() {
-        return productRepository.findLowStockProducts();
+        if (!stockAlertMonitor.isReady()) {
+            return productRepository.findLowStockProducts();
+        }
+        return productRepository.findByIdInOrderByIdAsc(stockAlertMonitor.getLowStockIds());
     }
     
     public List<Product> getOutOfStockProducts() {
-        return productRepository.findOutOfStockProducts();
+        if (!stockAlertMonitor.isReady()) {
+            return productRepository.findOutOfStockProducts();
+        }
+        return productRepository.findByIdInOrderByIdAsc(stockAlertMonitor.getOutOfStockIds());
+    }
+    
+    public SseEmitter subscribeToStockAlerts() {
+        return stockAlertMonitor.subscribe();
     }
     
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        if (stockLedger != null) {
+            afterCommit(() -> stockLedger.reset(saved.getId(), saved.getStock()));
+        }
+        if (searchIndex != null) {
+            afterCommit(() -> searchIndex.index(saved));
+        }
+        afterCommit(() -> {
+            productCatalog.upsert(saved);
+            productFacets.upsert(saved);
+            stockAlertMonitor.upsert(saved);
+            productSuggester.upsert(saved);
+        });
+        return saved;
     }
     
     public Product updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        boolean repriced = !sameAmount(product.getPrice(), productDetails.getPrice())
+            || !sameAmount(product.getWeight(), productDetails.getWeight())
+            || !Objects.equals(product.getCategory(), productDetails.getCategory());
         
         product.setName(productDetails.getName());
         product.setCategory(productDetails.getCategory());
@@ -62,18 +312,162 @@ public class ProductService {
         product.setDescription(productDetails.getDescription());
         product.setImageUrl(productDetails.getImageUrl());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        if (stockLedger != null) {
+            afterCommit(() -> stockLedger.reset(saved.getId(), saved.getStock()));
+        }
+        if (searchIndex != null) {
+            afterCommit(() -> searchIndex.index(saved));
+        }
+        afterCommit(() -> {
+            productCatalog.upsert(saved);
+            productFacets.upsert(saved);
+            stockAlertMonitor.upsert(saved);
+            productSuggester.upsert(saved);
+            // Cached quotes depend on price, weight and category (category-specific shipping rates)
+            if (repriced) {
+                quoteCache.invalidateProduct(id);
+            }
+        });
+        return saved;
     }
     
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        if (stockLedger != null) {
+            afterCommit(() -> stockLedger.remove(id));
+        }
+        if (searchIndex != null) {
+            afterCommit(() -> searchIndex.remove(id));
+        }
+        afterCommit(() -> {
+            productCatalog.remove(id);
+            productFacets.remove(id);
+            stockAlertMonitor.remove(id);
+            productSuggester.remove(id);
+            quoteCache.invalidateProduct(id);
+        });
     }
     
-    public void decrementStock(Long productId, int quantity) {
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+    /**
+     * Reserves stock for a whole cart. Rows are decremented with conditional updates in
+     * ascending product id order so concurrent checkouts lock rows in the same sequence,
+     * then all products are loaded in a single query. If any line cannot be satisfied the
+     * whole cart is rejected and the surrounding transaction rolls back. With the stock
+     * ledger enabled the reservation is taken in memory instead of on the rows.
+     *
+     * @return the reserved products ordered by id, reflecting the decremented stock
+     */
+    public List<Product> reserveStock(Map<Long, Integer> productQuantities) {
+        Map<Long, Integer> sorted = new TreeMap<>(productQuantities);
+        
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            Integer quantity = entry.getValue();
+            if (quantity == null || quantity < 1) {
+                throw new RuntimeException("Invalid quantity for product id " + entry.getKey() + ": " + quantity);
+            }
+        }
+        
+        List<Long> failed = new ArrayList<>();
+        if (stockLedger != null) {
+            failed = stockLedger.reserve(sorted);
+        } else {
+            for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+                if (productRepository.decrementStockIfAvailable(entry.getKey(), entry.getValue()) == 0) {
+                    failed.add(entry.getKey());
+                }
+            }
+        }
+        
+        List<Product> products = productRepository.findByIdInOrderByIdAsc(sorted.keySet());
+        if (products.size() != sorted.size()) {
+            List<Long> found = products.stream().map(Product::getId).toList();
+            Long missing = sorted.keySet().stream().filter(id -> !found.contains(id)).findFirst().orElse(null);
+            throw new RuntimeException("Product not found with id: " + missing);
+        }
+        
+        if (!failed.isEmpty()) {
+            List<Long> failedIds = failed;
+            List<InsufficientStockException.Shortage> shortages = products.stream()
+                .filter(p -> failedIds.contains(p.getId()))
+                .map(p -> new InsufficientStockException.Shortage(p.getId(), p.getName(),
+                    stockLedger != null ? stockLedger.getAvailable(p.getId()) : p.getStock(),
+                    sorted.get(p.getId())))
+                .toList();
+            throw new InsufficientStockException(shortages);
+        }
         
-        product.decrementStock(quantity);
-        productRepository.save(product);
+        Map<Long, Integer> levels = new TreeMap<>();
+        products.forEach(product -> levels.put(product.getId(), product.getStock()));
+        afterCommit(() -> stockChanged(levels));
+        return products;
+    }
+    
+    /**
+     * Brings the in-memory views up to date with a committed bulk import batch.
+     */
+    public void productsImported(List<Product> products) {
+        for (Product product : products) {
+            if (stockLedger != null) {
+                stockLedger.reset(product.getId(), product.getStock());
+            }
+            if (searchIndex != null) {
+                searchIndex.index(product);
+            }
+            productFacets.upsert(product);
+            stockAlertMonitor.upsert(product);
+            productSuggester.upsert(product);
+        }
+        // Reloaded once on the next read rather than copied once per imported row
+        productCatalog.invalidate();
+        quoteCache.invalidateAll();
+    }
+    
+    public List<ProductSuggestionDTO> suggest(String query, int limit) {
+        return productSuggester.suggest(query, limit);
+    }
+    
+    public ProductFacetsDTO getFacets(String category, String origin, boolean inStock) {
+        return productFacets.getFacets(category, origin, inStock);
+    }
+    
+    /**
+     * Publishes committed stock levels to the in-memory views. Levels are absolute, so a view
+     * that reloaded after the commit is not adjusted twice; if two checkouts publish out of
+     * order, the next change to the product corrects it.
+     *
+     * @param levels stock per product id as the committing transaction left the rows
+     */
+    private void stockChanged(Map<Long, Integer> levels) {
+        Map<Long, Integer> current = levels;
+        if (stockLedger != null) {
+            // Rows lag behind unflushed reservations; the ledger's counters are current
+            current = new TreeMap<>();
+            for (Long id : levels.keySet()) {
+                current.put(id, stockLedger.availableOr(id, levels.get(id)));
+            }
+        }
+        productCatalog.setStock(current);
+        productFacets.setStock(current);
+        stockAlertMonitor.setStock(current);
+        productSuggester.setStock(current);
+    }
+    
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+    
+    // Derived in-memory structures only see committed catalog changes
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
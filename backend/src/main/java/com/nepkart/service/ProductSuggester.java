@@ -0,0 +1,402 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.ProductSuggestionDTO;
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over product names, SKUs and origins.
+ *
+ * Keys are the accent-folded tokens of each field plus each field as a whole phrase, so
+ * both "nood" and "wai wai n" complete to "Wai Wai Noodles". Every trie node caches the
+ * entries of the most popular (most units sold) products below it, so a lookup walks the
+ * prefix and copies at most {@code nepkart.suggest.max-results} entries. Popularity only
+ * grows, so sales promote products in place; deletes and renames recompute the affected
+ * nodes from their children's cached lists and prune nodes left empty.
+ *
+ * Until the startup build has finished, lookups return no suggestions rather than scan
+ * the table on the request thread.
+ */
+@Service
+public class ProductSuggester {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Present only when nepkart.inventory.engine=ledger
+    @Autowired(required = false)
+    private StockLedger stockLedger;
+
+    private final int maxResults;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+    private volatile boolean ready;
+
+    public ProductSuggester(@Value("${nepkart.suggest.max-results:10}") int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Read under the lock, as ProductCatalog loads its snapshot, so an update that commits
+            // meanwhile waits and lands on top of the loaded rows instead of being overwritten by them
+            List<Product> products = productRepository.findAll();
+            Map<Long, Long> unitsSold = new HashMap<>();
+            for (ProductRepository.UnitsSoldView view : productRepository.findUnitsSold()) {
+                unitsSold.put(view.getProductId(), view.getUnitsSold());
+            }
+
+            root = new Node();
+            entries.clear();
+            for (Product product : products) {
+                // Rows lag behind unflushed ledger reservations, so the ledger's count wins
+                int stock = stockOf(product);
+                addLocked(product, stockLedger == null ? stock : stockLedger.availableOr(product.getId(), stock),
+                    unitsSold.getOrDefault(product.getId(), 0L));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSuggestionDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (!ready || prefix.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            int count = Math.min(Math.max(1, Math.min(limit, maxResults)), node.topCount);
+            List<ProductSuggestionDTO> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Entry entry = node.top[i];
+                suggestions.add(new ProductSuggestionDTO(entry.id, entry.name, entry.sku, entry.origin, entry.stock));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(product.getId());
+            long popularity = 0;
+            if (previous != null) {
+                popularity = previous.popularity;
+                removeLocked(previous);
+            }
+            addLocked(product, stockOf(product), popularity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                removeLocked(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets committed stock levels; units taken since the last known level count towards
+     * popularity, so a level the entry already shows adds nothing.
+     */
+    public void setStock(Map<Long, Integer> levels) {
+        lock.writeLock().lock();
+        try {
+            levels.forEach((id, level) -> {
+                Entry entry = entries.get(id);
+                if (entry == null) {
+                    return;
+                }
+                int taken = entry.stock - level;
+                entry.stock = level;
+                if (taken > 0) {
+                    entry.popularity += taken;
+                    for (String key : entry.keys) {
+                        Node node = root;
+                        offer(node, entry);
+                        for (int i = 0; i < key.length() && node != null; i++) {
+                            node = node.child(key.charAt(i));
+                            if (node != null) {
+                                offer(node, entry);
+                            }
+                        }
+                    }
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() == null ? 0 : product.getStock();
+    }
+
+    private void addLocked(Product product, int stock, long popularity) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String field : new String[] { product.getName(), product.getSku(), product.getOrigin() }) {
+            List<String> tokens = ProductSearchIndex.tokenize(field);
+            keys.addAll(tokens);
+            if (tokens.size() > 1) {
+                keys.add(String.join(" ", tokens));
+            }
+        }
+
+        Entry entry = new Entry(product.getId(), product.getName(), product.getSku(), product.getOrigin(),
+            stock, popularity, keys.toArray(new String[0]));
+        entries.put(entry.id, entry);
+
+        for (String key : keys) {
+            Node node = root;
+            offer(node, entry);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                offer(node, entry);
+            }
+            node.addTerminal(entry);
+        }
+    }
+
+    private void removeLocked(Entry entry) {
+        // Drop the terminals first so recomputed nodes cannot pick the product up again
+        List<Node[]> paths = new ArrayList<>();
+        int depth = 0;
+        for (String key : entry.keys) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length() && path[i] != null; i++) {
+                path[i + 1] = path[i].child(key.charAt(i));
+            }
+            if (path[key.length()] != null) {
+                path[key.length()].removeTerminal(entry);
+            }
+            paths.add(path);
+            depth = Math.max(depth, path.length);
+        }
+
+        // Deepest nodes first, so each parent merges already-corrected children and
+        // children left with no products are unlinked before their parent is checked
+        for (int level = depth - 1; level >= 0; level--) {
+            for (int p = 0; p < paths.size(); p++) {
+                Node[] path = paths.get(p);
+                Node node = level < path.length ? path[level] : null;
+                if (node == null) {
+                    continue;
+                }
+                if (node.indexOf(entry) >= 0) {
+                    recompute(node);
+                }
+                if (level > 0 && node.isEmpty()) {
+                    path[level - 1].removeChild(entry.keys[p].charAt(level - 1));
+                }
+            }
+        }
+        entries.remove(entry.id);
+    }
+
+    // Nodes reachable from the root, for tests
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            List<Node> pending = new ArrayList<>(List.of(root));
+            while (!pending.isEmpty()) {
+                Node node = pending.remove(pending.size() - 1);
+                count++;
+                pending.addAll(Arrays.asList(node.children).subList(0, node.childCount));
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void recompute(Node node) {
+        Arrays.fill(node.top, 0, node.topCount, null);
+        node.topCount = 0;
+        for (int i = 0; i < node.terminalCount; i++) {
+            offer(node, node.terminals[i]);
+        }
+        for (int c = 0; c < node.childCount; c++) {
+            Node child = node.children[c];
+            for (int i = 0; i < child.topCount; i++) {
+                offer(node, child.top[i]);
+            }
+        }
+    }
+
+    // Inserts or repositions a product in the node's ranked list, keeping at most maxResults
+    private void offer(Node node, Entry entry) {
+        int index = node.indexOf(entry);
+        if (index < 0) {
+            if (node.topCount < maxResults) {
+                if (node.topCount == node.top.length) {
+                    node.top = Arrays.copyOf(node.top, Math.min(maxResults, Math.max(2, node.top.length * 2)));
+                }
+                index = node.topCount++;
+            } else if (ranksBefore(entry, node.top[node.topCount - 1])) {
+                index = node.topCount - 1;
+            } else {
+                return;
+            }
+            node.top[index] = entry;
+        }
+        while (index > 0 && ranksBefore(node.top[index], node.top[index - 1])) {
+            Entry swap = node.top[index - 1];
+            node.top[index - 1] = node.top[index];
+            node.top[index] = swap;
+            index--;
+        }
+    }
+
+    private static boolean ranksBefore(Entry a, Entry b) {
+        return a.popularity != b.popularity ? a.popularity > b.popularity : a.id < b.id;
+    }
+
+    private static String normalize(String query) {
+        return String.join(" ", ProductSearchIndex.tokenize(query));
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String name;
+        private final String sku;
+        private final String origin;
+        private final String[] keys;
+        private int stock;
+        private long popularity;
+
+        Entry(long id, String name, String sku, String origin, int stock, long popularity, String[] keys) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.origin = origin;
+            this.stock = stock;
+            this.popularity = popularity;
+            this.keys = keys;
+        }
+    }
+
+    // Children are kept in parallel arrays sorted by label; arrays grow on demand
+    private static final class Node {
+        private char[] labels = NO_CHARS;
+        private Node[] children = NO_NODES;
+        private int childCount;
+        private Entry[] terminals = NO_ENTRIES;
+        private int terminalCount;
+        // Entries rather than ids, so lookups and ranking need no map access or boxing
+        private Entry[] top = NO_ENTRIES;
+        private int topCount;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, labels.length * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node node = new Node();
+            labels[insertAt] = label;
+            children[insertAt] = node;
+            childCount++;
+            return node;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(labels, index + 1, labels, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            children[--childCount] = null;
+        }
+
+        boolean isEmpty() {
+            return childCount == 0 && terminalCount == 0;
+        }
+
+        int indexOf(Entry entry) {
+            for (int i = 0; i < topCount; i++) {
+                if (top[i] == entry) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void addTerminal(Entry entry) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == entry) {
+                    return;
+                }
+            }
+            if (terminalCount == terminals.length) {
+                terminals = Arrays.copyOf(terminals, Math.max(1, terminals.length * 2));
+            }
+            terminals[terminalCount++] = entry;
+        }
+
+        void removeTerminal(Entry entry) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == entry) {
+                    terminals[i] = terminals[--terminalCount];
+                    terminals[terminalCount] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package com.nepkart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nepkart.dto.ProductImportResultDTO;
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk product import and export in CSV or NDJSON.
+ *
+ * Imports are parsed one row at a time and upserted by SKU in batches of
+ * {@code nepkart.products.import.batch-size}, each batch in its own transaction using
+ * Hibernate's JDBC batching. If a batch fails, its rows are retried one by one so only
+ * the offending rows are rejected. Memory stays bounded by the batch size and the
+ * number of errors reported. Exports read a forward-only database cursor.
+ */
+@Service
+public class ProductTransferService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported format: " + value);
+            }
+        }
+    }
+
+    // CSV column order for export; import matches header names case-insensitively
+    private static final List<String> CSV_COLUMNS = List.of("sku", "name", "category", "price", "stock",
+        "lowStockThreshold", "weight", "origin", "description", "imageUrl");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+
+    @Value("${nepkart.products.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${nepkart.products.import.max-errors:1000}")
+    private int maxErrors;
+
+    public ProductTransferService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    public ProductImportResultDTO importProducts(InputStream input, Format format) throws IOException {
+        ProductImportResultDTO result = new ProductImportResultDTO();
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowSource source = format == Format.CSV ? new CsvSource(reader) : new NdjsonSource(reader);
+            Row row;
+            while ((row = source.next()) != null) {
+                if (row.error != null) {
+                    reject(result, row, row.error);
+                    continue;
+                }
+                String violations = validate(row.product);
+                if (violations != null) {
+                    reject(result, row, violations);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, result);
+        }
+        return result;
+    }
+
+    public void exportProducts(Format format, OutputStream output) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAllOrderById()) {
+                if (format == Format.CSV) {
+                    writer.write(String.join(",", CSV_COLUMNS));
+                    writer.write('\n');
+                }
+                products.forEach(product -> {
+                    try {
+                        writer.write(format == Format.CSV ? toCsv(product) : objectMapper.writeValueAsString(product));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    // Keep the persistence context from growing with the cursor
+                    entityManager.detach(product);
+                });
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void flush(List<Row> rows, ProductImportResultDTO result) {
+        // Within a batch the last row for a SKU wins
+        Map<String, Row> bySku = new LinkedHashMap<>();
+        for (Row row : rows) {
+            bySku.remove(row.product.getSku());
+            bySku.put(row.product.getSku(), row);
+        }
+
+        try {
+            upsert(new ArrayList<>(bySku.values()), result);
+        } catch (RuntimeException batchFailure) {
+            entityManager.clear();
+            for (Row row : bySku.values()) {
+                try {
+                    upsert(List.of(row), result);
+                } catch (RuntimeException e) {
+                    entityManager.clear();
+                    reject(result, row, rootMessage(e));
+                }
+            }
+        }
+    }
+
+    private void upsert(List<Row> rows, ProductImportResultDTO result) {
+        int[] counts = new int[2];
+        List<Product> saved = transactionTemplate.execute(status -> {
+            Map<String, Product> existing = productRepository.findBySkuIn(
+                    rows.stream().map(row -> row.product.getSku()).toList())
+                .stream().collect(Collectors.toMap(Product::getSku, Function.identity()));
+
+            List<Product> products = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                Product incoming = row.product;
+                Product product = existing.get(incoming.getSku());
+                if (product == null) {
+                    incoming.setId(null);
+                    entityManager.persist(incoming);
+                    products.add(incoming);
+                    counts[0]++;
+                } else {
+                    product.setName(incoming.getName());
+                    product.setCategory(incoming.getCategory());
+                    product.setPrice(incoming.getPrice());
+                    product.setStock(incoming.getStock());
+                    product.setLowStockThreshold(incoming.getLowStockThreshold());
+                    product.setWeight(incoming.getWeight());
+                    product.setOrigin(incoming.getOrigin());
+                    product.setDescription(incoming.getDescription());
+                    product.setImageUrl(incoming.getImageUrl());
+                    products.add(product);
+                    counts[1]++;
+                }
+            }
+            entityManager.flush();
+            return products;
+        });
+
+        // The request-scoped persistence context would otherwise hold every imported row
+        entityManager.clear();
+        result.setCreated(result.getCreated() + counts[0]);
+        result.setUpdated(result.getUpdated() + counts[1]);
+        productService.productsImported(saved);
+    }
+
+    private String validate(Product product) {
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<Product> violation : validator.validate(product)) {
+            messages.add(violation.getMessage());
+        }
+        if (messages.isEmpty()) {
+            return null;
+        }
+        messages.sort(null);
+        return String.join("; ", messages);
+    }
+
+    private void reject(ProductImportResultDTO result, Row row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            String sku = row.product == null ? null : row.product.getSku();
+            result.getErrors().add(new ProductImportResultDTO.RowError(row.number, sku, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null && e.getCause() != e) {
+            e = e.getCause();
+        }
+        return e.getMessage();
+    }
+
+    private static String toCsv(Product product) {
+        Object[] values = { product.getSku(), product.getName(), product.getCategory(), product.getPrice(),
+            product.getStock(), product.getLowStockThreshold(), product.getWeight(), product.getOrigin(),
+            product.getDescription(), product.getImageUrl() };
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i] instanceof BigDecimal decimal ? decimal.toPlainString() : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+
+    // A parsed row: either a product to validate or a parse error
+    private static final class Row {
+        private final long number;
+        private final Product product;
+        private final String error;
+
+        Row(long number, Product product, String error) {
+            this.number = number;
+            this.product = product;
+            this.error = error;
+        }
+    }
+
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    private final class NdjsonSource implements RowSource {
+        private final BufferedReader reader;
+        private long number;
+
+        NdjsonSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                number++;
+                try {
+                    return new Row(number, objectMapper.readValue(line, Product.class), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(number, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    // Package-private so the RFC 4180 record parsing can be tested on its own
+    static final class CsvSource implements RowSource {
+        private final Reader reader;
+        private Map<String, Integer> columns;
+        private long number;
+        private boolean eof;
+
+        CsvSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (columns == null) {
+                List<String> header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+                for (String required : List.of("sku", "name", "category", "price", "stock",
+                        "lowstockthreshold", "weight", "origin")) {
+                    if (!columns.containsKey(required)) {
+                        throw new IllegalArgumentException("CSV header is missing column: " + required);
+                    }
+                }
+            }
+
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            number++;
+            Product product = new Product();
+            try {
+                product.setSku(text(record, "sku"));
+                product.setName(text(record, "name"));
+                product.setCategory(text(record, "category"));
+                product.setPrice(decimal(record, "price"));
+                product.setStock(integer(record, "stock"));
+                product.setLowStockThreshold(integer(record, "lowstockthreshold"));
+                product.setWeight(decimal(record, "weight"));
+                product.setOrigin(text(record, "origin"));
+                product.setDescription(text(record, "description"));
+                product.setImageUrl(text(record, "imageurl"));
+            } catch (NumberFormatException e) {
+                return new Row(number, product, e.getMessage());
+            }
+            return new Row(number, product, null);
+        }
+
+        private String text(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private BigDecimal decimal(List<String> record, String column) {
+            String value = text(record, column);
+            try {
+                return value == null ? null : new BigDecimal(value.trim());
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException("Invalid " + column + ": " + value);
+            }
+        }
+
+        private Integer integer(List<String> record, String column) {
+            String value = text(record, column);
+            try {
+                return value == null ? null : Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException("Invalid " + column + ": " + value);
+            }
+        }
+
+        // RFC 4180 record: quoted fields may contain commas, doubled quotes and line breaks
+        List<String> readRecord() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.QuoteCacheStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoized cart quotes, keyed by the canonical cart (items sorted by product id) plus the
+ * destination state.
+ *
+ * The cache holds at most {@code nepkart.quotes.cache-size} entries in access order. When
+ * it is full, a new cart is admitted only if it has been requested more often than the
+ * least recently used entry it would replace; request counts come from a small
+ * count-min sketch that is halved periodically, so one-off carts cannot flush the
+ * best-sellers. Entries containing a product are dropped when its price, weight or
+ * category changes, and everything is dropped when the shipping rate table changes.
+ *
+ * Every invalidation bumps a generation counter; a quote computed under an older
+ * generation is not stored, so a price update racing a quote cannot leave a stale entry.
+ */
+@Service
+public class QuoteCache {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_FREQUENCY = 15;
+
+    @Autowired
+    private ShippingRateEngine shippingRateEngine;
+
+    private final int capacity;
+    private final LinkedHashMap<CartKey, Amounts> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Count-min sketch of request frequencies, including carts not (yet) cached
+    private final int[] sketch;
+    private final int sketchMask;
+    private final int resetAfter;
+    private int additions;
+
+    private long generation;
+    private String ratesVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QuoteCache(@Value("${nepkart.quotes.cache-size:10000}") int capacity) {
+        this.capacity = Math.max(1, capacity);
+        int width = Integer.highestOneBit(Math.max(16, this.capacity) * 2);
+        this.sketch = new int[width * SKETCH_DEPTH];
+        this.sketchMask = width - 1;
+        this.resetAfter = this.capacity * 10;
+    }
+
+    /**
+     * Amounts of a priced cart, in cents.
+     */
+    public record Amounts(long subtotal, long shipping, long tax) {
+    }
+
+    /**
+     * Builds the canonical key of a cart; quantities must already be validated.
+     */
+    public static CartKey key(Map<Long, Integer> productQuantities, String destinationState) {
+        long[] ids = new long[productQuantities.size()];
+        int i = 0;
+        for (Long id : productQuantities.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        long[] pairs = new long[ids.length * 2];
+        for (i = 0; i < ids.length; i++) {
+            pairs[2 * i] = ids[i];
+            pairs[2 * i + 1] = productQuantities.get(ids[i]);
+        }
+        return new CartKey(pairs, destinationState);
+    }
+
+    /**
+     * @return the current generation, to be passed back to {@link #put} once the quote is computed
+     */
+    public synchronized long generation() {
+        String version = shippingRateEngine.getVersion();
+        if (!version.equals(ratesVersion)) {
+            if (ratesVersion != null) {
+                invalidations.add(entries.size());
+                entries.clear();
+            }
+            ratesVersion = version;
+            generation++;
+        }
+        return generation;
+    }
+
+    public synchronized Amounts get(CartKey key) {
+        recordRequest(key);
+        Amounts amounts = entries.get(key);
+        if (amounts == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return amounts;
+    }
+
+    public synchronized void put(CartKey key, Amounts amounts, long computedAt) {
+        if (computedAt != generation || entries.containsKey(key)) {
+            return;
+        }
+        if (entries.size() >= capacity) {
+            Iterator<CartKey> eldest = entries.keySet().iterator();
+            CartKey victim = eldest.next();
+            if (frequency(key) <= frequency(victim)) {
+                rejections.increment();
+                return;
+            }
+            eldest.remove();
+            evictions.increment();
+        }
+        entries.put(key, amounts);
+    }
+
+    public synchronized void invalidateProduct(long productId) {
+        generation++;
+        Iterator<CartKey> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().contains(productId)) {
+                keys.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public QuoteCacheStatsDTO getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        long requests = hitCount + missCount;
+        return new QuoteCacheStatsDTO(size, capacity, hitCount, missCount,
+            requests == 0 ? 0.0 : (double) hitCount / requests,
+            evictions.sum(), rejections.sum(), invalidations.sum());
+    }
+
+    private void recordRequest(CartKey key) {
+        int hash = key.hashCode();
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            int index = row * (sketchMask + 1) + (rehash(hash, row) & sketchMask);
+            if (sketch[index] < MAX_FREQUENCY) {
+                sketch[index]++;
+            }
+        }
+        // Age all counts so past popularity fades
+        if (++additions >= resetAfter) {
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] >>= 1;
+            }
+            additions = 0;
+        }
+    }
+
+    private int frequency(CartKey key) {
+        int hash = key.hashCode();
+        int min = MAX_FREQUENCY;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            min = Math.min(min, sketch[row * (sketchMask + 1) + (rehash(hash, row) & sketchMask)]);
+        }
+        return min;
+    }
+
+    private static int rehash(int hash, int row) {
+        int h = hash * (0x9E3779B9 + 2 * row);
+        return h ^ (h >>> 16);
+    }
+
+    // Product ids and quantities interleaved, sorted by id
+    public static final class CartKey {
+        private final long[] pairs;
+        private final String state;
+        private final int hash;
+
+        private CartKey(long[] pairs, String state) {
+            this.pairs = pairs;
+            this.state = state;
+            this.hash = 31 * Arrays.hashCode(pairs) + Objects.hashCode(state);
+        }
+
+        boolean contains(long productId) {
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (pairs[i] == productId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CartKey key && hash == key.hash
+                && Arrays.equals(pairs, key.pairs) && Objects.equals(state, key.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.QuoteCacheStatsDTO;
+import com.nepkart.dto.QuoteDTO;
+import com.nepkart.dto.QuoteRequestDTO;
+import com.nepkart.model.Money;
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prices many carts in one call without placing orders.
+ *
+ * Carts already priced are answered from {@link QuoteCache}; all products referenced by
+ * the remaining carts are loaded with a single query, then those carts are priced with
+ * the same shipping and tax rules as checkout. Large batches are split into
+ * chunks evaluated on a fixed-size pool shared by all requests, so one batch cannot
+ * claim more than {@code nepkart.quotes.parallelism} threads.
+ */
+@Service
+public class QuoteService {
+
+    // Below this many carts the batch is priced on the request thread
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShippingService shippingService;
+
+    @Autowired
+    private TaxService taxService;
+
+    @Autowired
+    private ZipJurisdictionResolver zipJurisdictionResolver;
+
+    @Autowired
+    private QuoteCache quoteCache;
+
+    @Value("${nepkart.quotes.max-carts:1000}")
+    private int maxCarts;
+
+    private final int parallelism;
+    private final ExecutorService pool;
+
+    public QuoteService(@Value("${nepkart.quotes.parallelism:0}") int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "quote-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public List<QuoteDTO> quote(List<QuoteRequestDTO.Cart> carts) {
+        if (carts.size() > maxCarts) {
+            throw new RuntimeException("Too many carts: " + carts.size() + " (max " + maxCarts + ")");
+        }
+
+        // Read before loading products, so a price change committed after the load discards these quotes
+        long generation = quoteCache.generation();
+
+        QuoteDTO[] quotes = new QuoteDTO[carts.size()];
+        QuoteCache.CartKey[] keys = new QuoteCache.CartKey[carts.size()];
+        String[] states = new String[carts.size()];
+        List<Integer> misses = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < carts.size(); i++) {
+            QuoteRequestDTO.Cart cart = carts.get(i);
+            String error = validateQuantities(cart.getProductQuantities());
+            if (error != null) {
+                quotes[i] = QuoteDTO.failed(cart.getReference(), error);
+                continue;
+            }
+            states[i] = zipJurisdictionResolver.destinationState(cart.getState(), cart.getZipCode());
+            keys[i] = QuoteCache.key(cart.getProductQuantities(), states[i]);
+            QuoteCache.Amounts cached = quoteCache.get(keys[i]);
+            if (cached != null) {
+                quotes[i] = toQuote(cart.getReference(), cached);
+            } else {
+                misses.add(i);
+                ids.addAll(cart.getProductQuantities().keySet());
+            }
+        }
+        if (misses.isEmpty()) {
+            return Arrays.asList(quotes);
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+
+        if (misses.size() < PARALLEL_THRESHOLD) {
+            for (int i : misses) {
+                quotes[i] = quoteCart(carts.get(i), states[i], keys[i], products, generation);
+            }
+            return Arrays.asList(quotes);
+        }
+
+        int chunkSize = (misses.size() + parallelism - 1) / parallelism;
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int start = 0; start < misses.size(); start += chunkSize) {
+            List<Integer> chunk = misses.subList(start, Math.min(start + chunkSize, misses.size()));
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i : chunk) {
+                    quotes[i] = quoteCart(carts.get(i), states[i], keys[i], products, generation);
+                }
+            }, pool));
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(quotes);
+    }
+
+    public QuoteCacheStatsDTO getCacheStats() {
+        return quoteCache.getStats();
+    }
+
+    private QuoteDTO quoteCart(QuoteRequestDTO.Cart cart, String state, QuoteCache.CartKey key,
+                               Map<Long, Product> products, long generation) {
+        Map<Long, Integer> quantities = cart.getProductQuantities();
+        List<Product> lines = new ArrayList<>(quantities.size());
+        long subtotal = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                return QuoteDTO.failed(cart.getReference(), "Product not found with id: " + entry.getKey());
+            }
+            lines.add(product);
+            subtotal = Money.plus(subtotal, Money.times(product.getPriceMinor(), entry.getValue()));
+        }
+
+        long shipping = shippingService.calculateShippingCostMinor(lines, quantities, state);
+        long tax = taxService.calculateTaxMinorForState(subtotal, state);
+        QuoteCache.Amounts amounts = new QuoteCache.Amounts(subtotal, shipping, tax);
+        quoteCache.put(key, amounts, generation);
+        return toQuote(cart.getReference(), amounts);
+    }
+
+    private static String validateQuantities(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return "Product quantities are required";
+        }
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (entry.getKey() == null) {
+                return "Product id is required";
+            }
+            if (entry.getValue() == null || entry.getValue() < 1) {
+                return "Invalid quantity for product id " + entry.getKey() + ": " + entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static QuoteDTO toQuote(String reference, QuoteCache.Amounts amounts) {
+        long total = Money.plus(Money.plus(amounts.subtotal(), amounts.shipping()), amounts.tax());
+        return new QuoteDTO(reference, Money.toDecimal(amounts.subtotal()), Money.toDecimal(amounts.shipping()),
+            Money.toDecimal(amounts.tax()), Money.toDecimal(total));
+    }
+}
@@ -0,0 +1,230 @@
+package com.nepkart.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weight-tiered shipping rates loaded from a versioned rate file
+ * ({@code nepkart.shipping.rate-table}).
+ *
+ * Each zone/category table is compiled into two primitive arrays, ascending weight limits
+ * and the matching costs, and priced with a binary search. A reload parses and validates
+ * a complete new table set before publishing it through a single volatile write, so a
+ * lookup sees either the old rates or the new ones, never a mix. The file is polled for
+ * changes every {@code nepkart.shipping.reload-interval-ms}; a file that fails to parse
+ * is reported and the current rates stay in effect.
+ */
+@Service
+public class ShippingRateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ShippingRateEngine.class);
+
+    private static final String ANY = "*";
+
+    @Value("${nepkart.shipping.rate-table:classpath:shipping/rates.csv}")
+    private Resource tableResource;
+
+    private volatile RateTable table;
+    // Written under the lock by reload() but also by the poller and read without it
+    private volatile long lastModified;
+
+    @PostConstruct
+    public void load() throws IOException {
+        table = parse();
+        lastModified = lastModified();
+        log.info("Loaded shipping rate table version {}", table.version);
+    }
+
+    /**
+     * Re-reads the rate file and swaps it in if its version differs from the current one.
+     *
+     * @return the version in effect afterwards
+     */
+    public synchronized String reload() {
+        long modified = lastModified();
+        RateTable loaded;
+        try {
+            loaded = parse();
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Shipping rate table not reloaded, keeping version " + table.version + ": " + e.getMessage(), e);
+        }
+        lastModified = modified;
+        if (!loaded.version.equals(table.version)) {
+            table = loaded;
+            log.info("Reloaded shipping rate table version {}", loaded.version);
+        }
+        return table.version;
+    }
+
+    @Scheduled(fixedDelayString = "${nepkart.shipping.reload-interval-ms:30000}",
+               initialDelayString = "${nepkart.shipping.reload-interval-ms:30000}")
+    public void reloadIfModified() {
+        long modified = lastModified();
+        if (modified == 0 || modified == lastModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Remember the broken file so it is reported once, not on every poll
+            lastModified = modified;
+            log.warn(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * @param destinationState two-letter state code, or null when unknown
+     * @param category         the category shared by every item in the cart, or null
+     * @return shipping cost in cents
+     */
+    public long costMinor(long totalGrams, String destinationState, String category) {
+        RateTable current = table;
+        String zone = destinationState == null ? null : current.zoneByState.get(destinationState);
+        return current.tiers(zone, category).cost(totalGrams);
+    }
+
+    public String getVersion() {
+        return table.version;
+    }
+
+    // 0 when the resource is not a file (e.g. inside the application jar) and cannot change
+    private long lastModified() {
+        try {
+            return tableResource.isFile() ? tableResource.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private RateTable parse() throws IOException {
+        String version = null;
+        Map<String, String> zoneByState = new HashMap<>();
+        Map<String, Map<String, List<long[]>>> rows = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(tableResource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                for (int i = 0; i < parts.length; i++) {
+                    parts[i] = parts[i].trim();
+                }
+                if (parts[0].equals("version") && parts.length == 2) {
+                    version = parts[1];
+                } else if (parts[0].equals("zone") && parts.length == 3) {
+                    for (String state : parts[2].toUpperCase().split("\\s+")) {
+                        if (zoneByState.put(state, parts[1]) != null) {
+                            throw new IllegalStateException("State " + state + " assigned to two zones (line " + lineNumber + ")");
+                        }
+                    }
+                } else if (parts[0].equals("rate") && parts.length == 5) {
+                    try {
+                        long limit = parts[3].equals(ANY) ? Long.MAX_VALUE : Long.parseLong(parts[3]);
+                        long cost = Long.parseLong(parts[4]);
+                        if (limit <= 0 || cost < 0) {
+                            throw new IllegalStateException("Invalid weight limit or cost on line " + lineNumber + ": " + line);
+                        }
+                        rows.computeIfAbsent(parts[1], zone -> new HashMap<>())
+                            .computeIfAbsent(parts[2], category -> new ArrayList<>())
+                            .add(new long[] { limit, cost });
+                    } catch (NumberFormatException e) {
+                        throw new IllegalStateException("Invalid number on line " + lineNumber + ": " + line);
+                    }
+                } else {
+                    throw new IllegalStateException("Malformed shipping rate line " + lineNumber + ": " + line);
+                }
+            }
+        }
+        if (version == null) {
+            throw new IllegalStateException("Shipping rate table " + tableResource + " has no version line");
+        }
+
+        Map<String, Map<String, Tiers>> tiers = new HashMap<>();
+        rows.forEach((zone, byCategory) -> byCategory.forEach((category, tierRows) ->
+            tiers.computeIfAbsent(zone, z -> new HashMap<>()).put(category, Tiers.compile(zone, category, tierRows))));
+        if (!tiers.containsKey(ANY) || !tiers.get(ANY).containsKey(ANY)) {
+            throw new IllegalStateException("Shipping rate table " + tableResource + " has no default (*,*) rates");
+        }
+        return new RateTable(version, zoneByState, tiers);
+    }
+
+    private static final class RateTable {
+        private final String version;
+        private final Map<String, String> zoneByState;
+        private final Map<String, Map<String, Tiers>> tiersByZone;
+
+        RateTable(String version, Map<String, String> zoneByState, Map<String, Map<String, Tiers>> tiersByZone) {
+            this.version = version;
+            this.zoneByState = zoneByState;
+            this.tiersByZone = tiersByZone;
+        }
+
+        Tiers tiers(String zone, String category) {
+            Tiers tiers = zone == null ? null : find(tiersByZone.get(zone), category);
+            return tiers != null ? tiers : find(tiersByZone.get(ANY), category);
+        }
+
+        private static Tiers find(Map<String, Tiers> byCategory, String category) {
+            if (byCategory == null) {
+                return null;
+            }
+            Tiers tiers = category == null ? null : byCategory.get(category);
+            return tiers != null ? tiers : byCategory.get(ANY);
+        }
+    }
+
+    // limits[i] is the exclusive upper weight bound of costs[i]; the last limit is Long.MAX_VALUE
+    private static final class Tiers {
+        private final long[] limits;
+        private final long[] costs;
+
+        private Tiers(long[] limits, long[] costs) {
+            this.limits = limits;
+            this.costs = costs;
+        }
+
+        static Tiers compile(String zone, String category, List<long[]> rows) {
+            rows.sort((a, b) -> Long.compare(a[0], b[0]));
+            long[] limits = new long[rows.size()];
+            long[] costs = new long[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                limits[i] = rows.get(i)[0];
+                costs[i] = rows.get(i)[1];
+                if (i > 0 && limits[i] == limits[i - 1]) {
+                    throw new IllegalStateException("Duplicate weight limit " + limits[i] + " in rates for " + zone + "/" + category);
+                }
+            }
+            if (limits[limits.length - 1] != Long.MAX_VALUE) {
+                throw new IllegalStateException("Rates for " + zone + "/" + category + " need a final \"*\" weight row");
+            }
+            return new Tiers(limits, costs);
+        }
+
+        long cost(long grams) {
+            int index = Arrays.binarySearch(limits, grams);
+            // An exact hit is the first weight of the next tier, since limits are exclusive
+            return costs[index >= 0 ? index + 1 : -index - 1];
+        }
+    }
+}
@@ -1,64 +1,85 @@
 package com.nepkart.service;
 
+import com.nepkart.dto.CartLinesDTO;
+import com.nepkart.model.Money;
 import com.nepkart.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class ShippingService {
     
-    // Weight-based shipping calculation
-    public BigDecimal calculateShippingCost(List<Map<String, Object>> cartItems) {
-        BigDecimal totalWeight = BigDecimal.ZERO;
+    // Weights are summed in grams and costs returned in cents; tiers come from the rate engine
+    @Autowired
+    private ShippingRateEngine rateEngine;
+    
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private ZipJurisdictionResolver zipJurisdictionResolver;
+    
+    /**
+     * Weight-based shipping to a destination given as a state code or a ZIP (the state wins
+     * when both are present, as at checkout); weights come from the catalog, not the client.
+     */
+    public BigDecimal calculateShippingCost(CartLinesDTO lines, String zip, String state) {
+        ProductCatalog.Snapshot catalog = productCatalog.snapshot();
+        long totalGrams = 0;
+        String category = null;
         
-        for (Map<String, Object> item : cartItems) {
-            Integer quantity = (Integer) item.get("quantity");
-            BigDecimal weight = (BigDecimal) item.get("weight");
-            
-            if (weight != null && quantity != null) {
-                totalWeight = totalWeight.add(weight.multiply(BigDecimal.valueOf(quantity)));
-            } else {
-                // Default weight if not specified (0.5 kg)
-                totalWeight = totalWeight.add(BigDecimal.valueOf(0.5).multiply(BigDecimal.valueOf(quantity)));
+        for (int line = 0; line < lines.size(); line++) {
+            long productId = lines.productId(line);
+            Product product = catalog.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+            if (line == 0) {
+                category = product.getCategory();
+            } else if (category != null && !category.equals(product.getCategory())) {
+                category = null;
+            }
+            // Same rule as order pricing: products without a weight add nothing
+            if (product.getWeight() != null) {
+                totalGrams = Math.addExact(totalGrams, Math.multiplyExact(toGrams(product.getWeight()), lines.quantity(line)));
             }
         }
         
-        // Shipping tiers based on weight
-        if (totalWeight.compareTo(BigDecimal.valueOf(1)) < 0) {
-            return BigDecimal.valueOf(5.99);
-        } else if (totalWeight.compareTo(BigDecimal.valueOf(5)) < 0) {
-            return BigDecimal.valueOf(12.99);
-        } else if (totalWeight.compareTo(BigDecimal.valueOf(10)) < 0) {
-            return BigDecimal.valueOf(19.99);
-        } else {
-            return BigDecimal.valueOf(29.99);
-        }
+        String destinationState = zipJurisdictionResolver.destinationState(state, zip);
+        return Money.toDecimal(rateEngine.costMinor(totalGrams, destinationState, category));
     }
     
     public BigDecimal calculateShippingCostByProducts(List<Product> products, Map<Long, Integer> quantities) {
-        BigDecimal totalWeight = BigDecimal.ZERO;
+        return Money.toDecimal(calculateShippingCostMinor(products, quantities));
+    }
+    
+    public long calculateShippingCostMinor(List<Product> products, Map<Long, Integer> quantities) {
+        return calculateShippingCostMinor(products, quantities, null);
+    }
+    
+    // Destination state selects the rate zone; a cart of a single category may have its own rates
+    public long calculateShippingCostMinor(List<Product> products, Map<Long, Integer> quantities, String destinationState) {
+        long totalGrams = 0;
+        String category = products.isEmpty() ? null : products.get(0).getCategory();
         
         for (Product product : products) {
+            if (category != null && !category.equals(product.getCategory())) {
+                category = null;
+            }
             Integer quantity = quantities.get(product.getId());
             if (quantity != null && product.getWeight() != null) {
-                totalWeight = totalWeight.add(
-                    product.getWeight().multiply(BigDecimal.valueOf(quantity))
-                );
+                totalGrams = Math.addExact(totalGrams, Math.multiplyExact(toGrams(product.getWeight()), quantity));
             }
         }
         
-        // Shipping tiers based on weight
-        if (totalWeight.compareTo(BigDecimal.valueOf(1)) < 0) {
-            return BigDecimal.valueOf(5.99);
-        } else if (totalWeight.compareTo(BigDecimal.valueOf(5)) < 0) {
-            return BigDecimal.valueOf(12.99);
-        } else if (totalWeight.compareTo(BigDecimal.valueOf(10)) < 0) {
-            return BigDecimal.valueOf(19.99);
-        } else {
-            return BigDecimal.valueOf(29.99);
-        }
+        return rateEngine.costMinor(totalGrams, destinationState, category);
+    }
+    
+    // Stored weights have two decimals (kg); anything finer than a gram rounds up
+    private static long toGrams(BigDecimal kilograms) {
+        return kilograms.movePointRight(3).setScale(0, RoundingMode.CEILING).longValueExact();
     }
 }
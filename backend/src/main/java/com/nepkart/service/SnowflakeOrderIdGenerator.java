@@ -0,0 +1,102 @@
+package com.nepkart.service;
+
+import com.nepkart.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node id
+ * and a 12-bit per-millisecond sequence, rendered as "NEP-" plus 13 base-36 characters so
+ * ids sort by creation time.
+ *
+ * The last issued (timestamp, sequence) pair is advanced with a single CAS. If the clock
+ * moves backwards, or the sequence for a millisecond is exhausted, ids keep counting up
+ * from the last issued value instead of blocking or repeating.
+ *
+ * That state is only in memory, so at startup it is seeded from the highest order id
+ * already stored. A restart after the wall clock stepped back therefore continues above
+ * every persisted id instead of reissuing them.
+ */
+@Service
+public class SnowflakeOrderIdGenerator implements OrderIdGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeOrderIdGenerator.class);
+
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13; // Long.MAX_VALUE in base 36
+
+    private static final String PREFIX = "NEP-";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final long nodeId;
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeOrderIdGenerator(@Value("${nepkart.order-id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order id node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @PostConstruct
+    public void seedFromIssuedIds() {
+        orderRepository.findMaxSnowflakeOrderId().ifPresent(orderId -> {
+            long issued = decode(orderId);
+            advancePast(issued);
+            long aheadMs = (issued >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH - System.currentTimeMillis();
+            if (aheadMs > 0) {
+                log.warn("Latest order id {} is {} ms ahead of the clock; continuing above it", orderId, aheadMs);
+            }
+        });
+    }
+
+    @Override
+    public String nextOrderId() {
+        return PREFIX + encode(nextId());
+    }
+
+    /**
+     * Makes every later id start after the millisecond of {@code issued}. The whole
+     * millisecond is skipped because the id may come from another node, whose sequence
+     * says nothing about this node's.
+     */
+    void advancePast(long issued) {
+        long millis = issued >>> (NODE_BITS + SEQUENCE_BITS);
+        lastState.accumulateAndGet(((millis + 1) << SEQUENCE_BITS) - 1, Math::max);
+    }
+
+    long nextId() {
+        long candidate = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = lastState.get();
+            next = Math.max(candidate, prev + 1);
+        } while (!lastState.compareAndSet(prev, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    static String encode(long id) {
+        String digits = Long.toString(id, 36).toUpperCase();
+        return "0".repeat(ENCODED_LENGTH - digits.length()) + digits;
+    }
+
+    static long decode(String orderId) {
+        return Long.parseLong(orderId.substring(PREFIX.length()), 36);
+    }
+}
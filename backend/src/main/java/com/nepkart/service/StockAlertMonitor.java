@@ -0,0 +1,225 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.StockAlertDTO;
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tracks every product's stock level and reports threshold crossings as they happen.
+ *
+ * The low-stock and out-of-stock sets are maintained incrementally from committed
+ * product writes and stock reservations, so the admin listings become primary-key
+ * lookups. Each crossing (OK, LOW, OUT in either direction) is pushed to Server-Sent
+ * Event subscribers from a single dispatcher thread, so a slow client never delays a
+ * checkout. New subscribers first receive the current low and out-of-stock products.
+ */
+@Service
+public class StockAlertMonitor {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Present only when nepkart.inventory.engine=ledger
+    @Autowired(required = false)
+    private StockLedger stockLedger;
+
+    @Value("${nepkart.stock-alerts.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    private final Map<Long, Tracked> products = new HashMap<>();
+    private final TreeSet<Long> lowStock = new TreeSet<>();
+    private final TreeSet<Long> outOfStock = new TreeSet<>();
+    private volatile boolean ready;
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-alert-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            // Queried while holding the monitor, or a level tracked mid-query would be reset to the older row
+            List<ProductRepository.StockLevelView> levels = productRepository.findStockLevels();
+            products.clear();
+            lowStock.clear();
+            outOfStock.clear();
+            for (ProductRepository.StockLevelView view : levels) {
+                // Rows lag behind unflushed ledger reservations, so the ledger's count wins
+                int stock = stockLedger == null ? view.getStock() : stockLedger.availableOr(view.getId(), view.getStock());
+                track(view.getId(), new Tracked(view.getSku(), view.getName(), stock, view.getLowStockThreshold()));
+            }
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized List<Long> getLowStockIds() {
+        return new ArrayList<>(lowStock);
+    }
+
+    public synchronized List<Long> getOutOfStockIds() {
+        return new ArrayList<>(outOfStock);
+    }
+
+    public void upsert(Product product) {
+        StockAlertDTO alert;
+        synchronized (this) {
+            if (!ready) {
+                return;
+            }
+            alert = track(product.getId(), new Tracked(product.getSku(), product.getName(),
+                product.getStock(), product.getLowStockThreshold()));
+        }
+        publish(alert);
+    }
+
+    public void remove(Long productId) {
+        synchronized (this) {
+            products.remove(productId);
+            lowStock.remove(productId);
+            outOfStock.remove(productId);
+        }
+    }
+
+    /**
+     * Sets committed stock levels and publishes any resulting level crossings.
+     */
+    public void setStock(Map<Long, Integer> levels) {
+        List<StockAlertDTO> alerts = new ArrayList<>();
+        synchronized (this) {
+            if (!ready) {
+                return;
+            }
+            levels.forEach((id, level) -> {
+                Tracked tracked = products.get(id);
+                if (tracked != null) {
+                    StockAlertDTO alert = track(id, new Tracked(tracked.sku, tracked.name, level, tracked.threshold));
+                    if (alert != null) {
+                        alerts.add(alert);
+                    }
+                }
+            });
+        }
+        alerts.forEach(this::publish);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        // Queued behind pending alerts so the subscriber never sees an older state after a newer one
+        dispatcher.execute(() -> {
+            List<StockAlertDTO> current = new ArrayList<>();
+            synchronized (this) {
+                for (Long id : outOfStock) {
+                    current.add(alert(id, products.get(id), null));
+                }
+                for (Long id : lowStock) {
+                    current.add(alert(id, products.get(id), null));
+                }
+            }
+            try {
+                emitter.send(SseEmitter.event().name("snapshot").data(current, MediaType.APPLICATION_JSON));
+                subscribers.add(emitter);
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    // Keeps idle connections open through proxies and prunes disconnected clients
+    @Scheduled(fixedDelayString = "${nepkart.stock-alerts.heartbeat-ms:15000}")
+    public void heartbeat() {
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : subscribers) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException e) {
+                    subscribers.remove(emitter);
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    // Caller holds the monitor; returns the crossing alert, or null if the level did not change
+    private StockAlertDTO track(Long productId, Tracked tracked) {
+        Tracked previous = products.put(productId, tracked);
+        StockAlertDTO.Level level = tracked.level();
+        lowStock.remove(productId);
+        outOfStock.remove(productId);
+        if (level == StockAlertDTO.Level.LOW) {
+            lowStock.add(productId);
+        } else if (level == StockAlertDTO.Level.OUT) {
+            outOfStock.add(productId);
+        }
+
+        StockAlertDTO.Level previousLevel = previous == null ? StockAlertDTO.Level.OK : previous.level();
+        return level == previousLevel ? null : alert(productId, tracked, previousLevel);
+    }
+
+    private void publish(StockAlertDTO alert) {
+        if (alert == null || subscribers.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : subscribers) {
+                try {
+                    emitter.send(SseEmitter.event().name("stock-alert").data(alert, MediaType.APPLICATION_JSON));
+                } catch (IOException e) {
+                    subscribers.remove(emitter);
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    private static StockAlertDTO alert(Long productId, Tracked tracked, StockAlertDTO.Level previousLevel) {
+        return new StockAlertDTO(productId, tracked.sku, tracked.name, tracked.stock, tracked.threshold,
+            tracked.level(), previousLevel);
+    }
+
+    private record Tracked(String sku, String name, int stock, int threshold) {
+
+        StockAlertDTO.Level level() {
+            if (stock <= 0) {
+                return StockAlertDTO.Level.OUT;
+            }
+            return stock <= threshold ? StockAlertDTO.Level.LOW : StockAlertDTO.Level.OK;
+        }
+    }
+}
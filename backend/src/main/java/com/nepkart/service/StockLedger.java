@@ -0,0 +1,473 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Product;
+import com.nepkart.model.StockLedgerCheckpoint;
+import com.nepkart.repository.ProductRepository;
+import com.nepkart.repository.StockLedgerCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inventory engine, enabled with {@code nepkart.inventory.engine=ledger}.
+ *
+ * Available stock is held in per-product atomic counters and reserved with a CAS loop, so
+ * checkouts for a hot SKU never wait on the {@code products} row. Every change is appended
+ * to a journal and forced to disk before the reservation returns; concurrent reservations
+ * share one fsync (group commit). Net deltas are flushed to {@code products.stock} in
+ * periodic batches.
+ *
+ * The journal is split into numbered segments. A flush closes the live segment and applies
+ * its deltas in a transaction that also advances {@code stock_ledger_checkpoint}, and the
+ * segment file is deleted after that commit. On startup, leftover segments above the
+ * checkpoint are replayed and those at or below it are discarded, so a crash between a
+ * flush commit and the file deletion cannot apply a segment twice.
+ */
+@Service
+@ConditionalOnProperty(name = "nepkart.inventory.engine", havingValue = "ledger")
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    // Journal line discarding earlier deltas of a product whose stock was set directly
+    private static final String RESET_MARKER = "R";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${nepkart.inventory.ledger.journal:./data/stock-ledger.log}")
+    private String journalPath;
+
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> pending = new ConcurrentHashMap<>();
+
+    // Closed segments whose deltas are not in the database yet, by segment number
+    private final TreeMap<Long, Map<Long, Integer>> unapplied = new TreeMap<>();
+
+    // Reservations share the read lock; rotation, reset and remove take the write lock
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final Object flushMonitor = new Object();
+    private final Object syncMonitor = new Object();
+
+    private Path directory;
+    private String segmentPrefix;
+
+    // Live segment; swapped only under the write lock
+    private long segment;
+    private FileChannel journal;
+    private long written;
+    private long forced;
+
+    @PostConstruct
+    public void recover() throws IOException {
+        Path base = Paths.get(journalPath).toAbsolutePath();
+        directory = base.getParent();
+        segmentPrefix = base.getFileName() + ".";
+        Files.createDirectories(directory);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long applied = tx.execute(status -> checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID)
+            .orElseGet(() -> checkpointRepository.save(new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, 0L)))
+            .getAppliedSegment());
+
+        TreeMap<Long, Path> segments = listSegments();
+        long last = segments.isEmpty() ? applied : Math.max(applied, segments.lastKey());
+
+        // Unapplied segments are merged in order so their reset markers discard earlier deltas
+        TreeMap<Long, Path> replay = new TreeMap<>(segments.tailMap(applied, false));
+        if (!replay.isEmpty()) {
+            Map<Long, Integer> deltas = new TreeMap<>();
+            for (Path path : replay.values()) {
+                readSegment(path, deltas);
+            }
+            applyToDatabase(last, deltas);
+            log.info("Stock ledger replayed segments {}..{} ({} product deltas)", replay.firstKey(), last, deltas.size());
+        }
+        for (Path path : segments.values()) {
+            Files.deleteIfExists(path);
+        }
+
+        segment = last + 1;
+        journal = openSegment(segment);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Reserves every line of a cart or none of them. Lines are taken in ascending product
+     * id order and already-taken lines are released if a later one fails. A reservation
+     * whose journal entry cannot be made durable is given back and rejected.
+     *
+     * @return product ids that could not be satisfied, empty on success
+     */
+    public List<Long> reserve(Map<Long, Integer> productQuantities) {
+        Map<Long, Integer> sorted = new TreeMap<>(productQuantities);
+        List<Long> failed = new ArrayList<>();
+
+        flushLock.readLock().lock();
+        try {
+            Map<Long, Integer> taken = new TreeMap<>();
+            for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+                if (tryTake(entry.getKey(), entry.getValue())) {
+                    taken.put(entry.getKey(), entry.getValue());
+                } else {
+                    failed.add(entry.getKey());
+                }
+            }
+
+            if (!failed.isEmpty()) {
+                taken.forEach((id, quantity) -> counter(id).addAndGet(quantity));
+                return failed;
+            }
+
+            Map<Long, Integer> recorded = new TreeMap<>();
+            try {
+                long position = 0;
+                for (Map.Entry<Long, Integer> entry : taken.entrySet()) {
+                    position = record(entry.getKey(), -entry.getValue());
+                    recorded.put(entry.getKey(), entry.getValue());
+                }
+                sync(position);
+            } catch (UncheckedIOException e) {
+                // Lines already written may still reach the database after a crash; that can
+                // only understate stock
+                recorded.forEach((id, quantity) -> pending.get(id).addAndGet(quantity));
+                taken.forEach((id, quantity) -> counter(id).addAndGet(quantity));
+                throw e;
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+
+        // Give the stock back if the order transaction does not commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(sorted);
+                    }
+                }
+            });
+        }
+        return failed;
+    }
+
+    public void release(Map<Long, Integer> productQuantities) {
+        flushLock.readLock().lock();
+        try {
+            long position = 0;
+            for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
+                AtomicInteger counter = counter(entry.getKey());
+                if (counter != null) {
+                    counter.addAndGet(entry.getValue());
+                    position = record(entry.getKey(), entry.getValue());
+                }
+            }
+            sync(position);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public int getAvailable(Long productId) {
+        AtomicInteger counter = counter(productId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * The live count for a product read back from the database, whose stored stock lags
+     * behind unflushed reservations; {@code stored} if the ledger does not track it yet.
+     * Never touches the database.
+     */
+    public int availableOr(Long productId, int stored) {
+        AtomicInteger counter = available.get(productId);
+        return counter == null ? stored : counter.get();
+    }
+
+    /**
+     * Replaces the counter for a product whose stock was set directly (admin edit, new
+     * product), discarding any unflushed delta for it. Call only after the new stock has
+     * committed.
+     */
+    public void reset(Long productId, int stock) {
+        flushLock.writeLock().lock();
+        try {
+            discard(productId);
+            available.put(productId, new AtomicInteger(stock));
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        flushLock.writeLock().lock();
+        try {
+            discard(productId);
+            available.remove(productId);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${nepkart.inventory.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushMonitor) {
+            try {
+                rotate();
+            } catch (IOException | RuntimeException e) {
+                log.error("Stock ledger journal rotation failed, keeping deltas in the live segment", e);
+            }
+
+            while (true) {
+                Map.Entry<Long, Map<Long, Integer>> next;
+                flushLock.writeLock().lock();
+                try {
+                    next = unapplied.firstEntry();
+                    if (next == null) {
+                        return;
+                    }
+                    next = Map.entry(next.getKey(), new HashMap<>(next.getValue()));
+                } finally {
+                    flushLock.writeLock().unlock();
+                }
+
+                try {
+                    if (!applyToDatabase(next.getKey(), next.getValue())) {
+                        log.warn("Stock ledger segment {} was already applied, skipping it", next.getKey());
+                    }
+                } catch (RuntimeException e) {
+                    // Segments are applied strictly in order, so later ones wait for this one
+                    log.warn("Stock ledger flush of segment {} failed, retrying next cycle", next.getKey(), e);
+                    return;
+                }
+
+                flushLock.writeLock().lock();
+                try {
+                    unapplied.remove(next.getKey());
+                } finally {
+                    flushLock.writeLock().unlock();
+                }
+                try {
+                    Files.deleteIfExists(segmentPath(next.getKey()));
+                } catch (IOException e) {
+                    // Harmless: recovery skips segments at or below the checkpoint
+                    log.warn("Failed to delete applied stock ledger segment {}", next.getKey(), e);
+                }
+            }
+        }
+    }
+
+    // Closes the live segment and starts the next one; state changes only once both files are safe
+    private void rotate() throws IOException {
+        flushLock.writeLock().lock();
+        try {
+            Map<Long, Integer> deltas = new TreeMap<>();
+            pending.forEach((id, delta) -> {
+                if (delta.get() != 0) {
+                    deltas.put(id, delta.get());
+                }
+            });
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            FileChannel next = openSegment(segment + 1);
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                next.close();
+                Files.deleteIfExists(segmentPath(segment + 1));
+                throw e;
+            }
+
+            FileChannel closed = journal;
+            unapplied.put(segment, deltas);
+            pending.clear();
+            journal = next;
+            segment++;
+            written = 0;
+            forced = 0;
+            try {
+                closed.close();
+            } catch (IOException e) {
+                log.warn("Failed to close stock ledger segment {}", segment - 1, e);
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private boolean tryTake(Long productId, int quantity) {
+        AtomicInteger counter = counter(productId);
+        if (counter == null) {
+            return false;
+        }
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private AtomicInteger counter(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        // Queried outside the map: a mapping function holds the bin lock for as long as it runs,
+        // blocking every other product hashed to that bin. Concurrent first loads may both query;
+        // the first counter published wins.
+        Integer stock = productRepository.findById(productId).map(Product::getStock).orElse(null);
+        if (stock == null) {
+            return null;
+        }
+        AtomicInteger loaded = new AtomicInteger(stock);
+        AtomicInteger existing = available.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Caller holds the write lock
+    private void discard(Long productId) {
+        pending.remove(productId);
+        unapplied.values().forEach(deltas -> deltas.remove(productId));
+        sync(append(RESET_MARKER + " " + productId));
+    }
+
+    /**
+     * Appends a delta to the live segment; call {@link #sync} with the returned position
+     * before acknowledging it.
+     */
+    private long record(Long productId, int delta) {
+        long position = append(productId + " " + delta);
+        pending.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(delta);
+        return position;
+    }
+
+    private synchronized long append(String line) {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to stock ledger journal", e);
+        }
+        written += buffer.limit();
+        return written;
+    }
+
+    // Group commit: one force covers every append made before it, so waiting callers share it
+    private void sync(long position) {
+        synchronized (syncMonitor) {
+            if (forced >= position) {
+                return;
+            }
+            long upTo;
+            synchronized (this) {
+                upTo = written;
+            }
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync stock ledger journal", e);
+            }
+            forced = upTo;
+        }
+    }
+
+    // False when the segment was already applied, in which case its deltas are skipped
+    private boolean applyToDatabase(long segmentNumber, Map<Long, Integer> deltas) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (checkpointRepository.advance(segmentNumber) == 0) {
+                return false;
+            }
+            deltas.forEach((id, delta) -> productRepository.adjustStock(id, delta));
+            return true;
+        });
+    }
+
+    private FileChannel openSegment(long segmentNumber) throws IOException {
+        return FileChannel.open(segmentPath(segmentNumber),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long segmentNumber) {
+        return directory.resolve(segmentPrefix + segmentNumber);
+    }
+
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, segmentPrefix + "*")) {
+            for (Path path : paths) {
+                try {
+                    segments.put(Long.parseLong(path.getFileName().toString().substring(segmentPrefix.length())), path);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unexpected file {} in the stock ledger directory", path);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static void readSegment(Path path, Map<Long, Integer> deltas) throws IOException {
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 2) {
+                continue; // torn write at crash time
+            }
+            try {
+                if (parts[0].equals(RESET_MARKER)) {
+                    deltas.remove(Long.valueOf(parts[1]));
+                } else {
+                    deltas.merge(Long.valueOf(parts[0]), Integer.valueOf(parts[1]), Integer::sum);
+                }
+            } catch (NumberFormatException e) {
+                // skip partial line
+            }
+        }
+    }
+}
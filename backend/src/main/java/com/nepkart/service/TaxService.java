@@ -1,15 +1,19 @@
 package com.nepkart.service;
 
+import com.nepkart.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class TaxService {
 
+    @Autowired
+    private ZipJurisdictionResolver zipJurisdictionResolver;
+
     // 2026 Combined State & Local Sales Tax Rates (as of January 1, 2026)
     // Source: 2026 Sales Tax Rates - Sales Taxes by State.csv
     private static final Map<String, BigDecimal> STATE_RATES = new HashMap<>();
@@ -68,9 +72,16 @@ public class TaxService {
         STATE_RATES.put("WY", new BigDecimal("0.0556")); // Wyoming - 5.56%
         STATE_RATES.put("DC", new BigDecimal("0.0600")); // District of Columbia - 6.00%
     }
+    
+    // The same rates as {units, scale} pairs for Money.applyRate
+    private static final Map<String, long[]> STATE_RATE_PARTS = new HashMap<>();
+    
+    static {
+        STATE_RATES.forEach((state, rate) -> STATE_RATE_PARTS.put(state, Money.rateParts(rate)));
+    }
 
     public BigDecimal getTaxRateForZip(String zip) {
-        String state = guessStateFromZip(zip);
+        String state = zipJurisdictionResolver.resolveState(zip);
         if (state == null) return BigDecimal.ZERO;
         return STATE_RATES.getOrDefault(state, BigDecimal.ZERO);
     }
@@ -83,85 +94,17 @@ public class TaxService {
 
     public BigDecimal calculateTax(BigDecimal subtotal, String zip) {
         if (subtotal == null) return BigDecimal.ZERO;
-        BigDecimal rate = getTaxRateForZip(zip);
-        return subtotal.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+        return Money.toDecimal(calculateTaxMinor(Money.fromDecimal(subtotal), zip));
     }
-
-    // Improved ZIP code to state mapping based on ZIP code ranges
-    private String guessStateFromZip(String zipRaw) {
-        if (zipRaw == null) return null;
-        String zip = zipRaw.trim();
-        if (zip.length() < 1) return null;
-
-        // Extract first 1-3 digits for better accuracy
-        int zipPrefix;
-        try {
-            zipPrefix = Integer.parseInt(zip.substring(0, Math.min(3, zip.length())));
-        } catch (NumberFormatException e) {
-            return null;
-        }
-
-        // ZIP code ranges by state (first 3 digits)
-        if (zipPrefix >= 100 && zipPrefix <= 149) return "NY"; // New York
-        if (zipPrefix >= 150 && zipPrefix <= 196) return "PA"; // Pennsylvania
-        if (zipPrefix >= 197 && zipPrefix <= 199) return "DE"; // Delaware
-        if (zipPrefix >= 200 && zipPrefix <= 205) return "DC"; // District of Columbia
-        if (zipPrefix >= 206 && zipPrefix <= 219) return "MD"; // Maryland
-        if (zipPrefix >= 220 && zipPrefix <= 246) return "VA"; // Virginia
-        if (zipPrefix >= 247 && zipPrefix <= 269) return "WV"; // West Virginia
-        if (zipPrefix >= 270 && zipPrefix <= 289) return "NC"; // North Carolina
-        if (zipPrefix >= 290 && zipPrefix <= 299) return "SC"; // South Carolina
-        if (zipPrefix >= 300 && zipPrefix <= 319) return "GA"; // Georgia
-        if (zipPrefix >= 320 && zipPrefix <= 349) return "FL"; // Florida
-        if (zipPrefix >= 350 && zipPrefix <= 369) return "AL"; // Alabama
-        if (zipPrefix >= 370 && zipPrefix <= 385) return "TN"; // Tennessee
-        if (zipPrefix >= 386 && zipPrefix <= 397) return "MS"; // Mississippi
-        if (zipPrefix >= 398 && zipPrefix <= 399) return "GA"; // Georgia
-        if (zipPrefix >= 400 && zipPrefix <= 429) return "KY"; // Kentucky
-        if (zipPrefix >= 430 && zipPrefix <= 459) return "OH"; // Ohio
-        if (zipPrefix >= 460 && zipPrefix <= 479) return "IN"; // Indiana
-        if (zipPrefix >= 480 && zipPrefix <= 499) return "MI"; // Michigan
-        if (zipPrefix >= 500 && zipPrefix <= 529) return "IA"; // Iowa
-        if (zipPrefix >= 530 && zipPrefix <= 549) return "WI"; // Wisconsin
-        if (zipPrefix >= 550 && zipPrefix <= 569) return "MN"; // Minnesota
-        if (zipPrefix >= 570 && zipPrefix <= 579) return "SD"; // South Dakota
-        if (zipPrefix >= 580 && zipPrefix <= 589) return "ND"; // North Dakota
-        if (zipPrefix >= 590 && zipPrefix <= 599) return "MT"; // Montana
-        if (zipPrefix >= 600 && zipPrefix <= 629) return "IL"; // Illinois
-        if (zipPrefix >= 630 && zipPrefix <= 659) return "MO"; // Missouri
-        if (zipPrefix >= 660 && zipPrefix <= 679) return "KS"; // Kansas
-        if (zipPrefix >= 680 && zipPrefix <= 699) return "NE"; // Nebraska
-        if (zipPrefix >= 700 && zipPrefix <= 715) return "LA"; // Louisiana
-        if (zipPrefix >= 716 && zipPrefix <= 729) return "AR"; // Arkansas
-        if (zipPrefix >= 730 && zipPrefix <= 749) return "OK"; // Oklahoma
-        if (zipPrefix >= 750 && zipPrefix <= 799) return "TX"; // Texas
-        if (zipPrefix >= 800 && zipPrefix <= 819) return "CO"; // Colorado
-        if (zipPrefix >= 820 && zipPrefix <= 839) return "WY"; // Wyoming
-        if (zipPrefix >= 840 && zipPrefix <= 849) return "UT"; // Utah
-        if (zipPrefix >= 850 && zipPrefix <= 869) return "AZ"; // Arizona
-        if (zipPrefix >= 870 && zipPrefix <= 889) return "NM"; // New Mexico
-        if (zipPrefix >= 890 && zipPrefix <= 899) return "NV"; // Nevada
-        if (zipPrefix >= 900 && zipPrefix <= 969) return "CA"; // California
-        if (zipPrefix >= 967 && zipPrefix <= 968) return "HI"; // Hawaii
-        if (zipPrefix >= 970 && zipPrefix <= 979) return "OR"; // Oregon
-        if (zipPrefix >= 980 && zipPrefix <= 999) return "WA"; // Washington
-        if (zipPrefix >= 995 && zipPrefix <= 999) return "AK"; // Alaska
-        
-        // Handle single-digit prefixes (New England and others)
-        if (zipPrefix >= 0 && zipPrefix <= 27) return "MA"; // Massachusetts
-        if (zipPrefix >= 28 && zipPrefix <= 29) return "RI"; // Rhode Island
-        if (zipPrefix >= 30 && zipPrefix <= 38) return "NH"; // New Hampshire
-        if (zipPrefix >= 39 && zipPrefix <= 49) return "ME"; // Maine
-        if (zipPrefix >= 50 && zipPrefix <= 54) return "VT"; // Vermont
-        
-        // Fallback for single digit
-        char first = zip.charAt(0);
-        return switch (first) {
-            case '0', '1', '2' -> "MA"; // Massachusetts
-            case '3' -> "NH"; // New Hampshire
-            case '4' -> "ME"; // Maine
-            case '5' -> "VT"; // Vermont
-            default -> null;
-        };
+    
+    // Tax in minor units, rounded half-up to the cent
+    public long calculateTaxMinor(long subtotalMinor, String zip) {
+        return calculateTaxMinorForState(subtotalMinor, zipJurisdictionResolver.resolveState(zip));
+    }
+    
+    public long calculateTaxMinorForState(long subtotalMinor, String stateCode) {
+        long[] rate = stateCode == null ? null : STATE_RATE_PARTS.get(stateCode.toUpperCase());
+        if (rate == null) return 0;
+        return Money.applyRate(subtotalMinor, rate[0], (int) rate[1]);
     }
 }
@@ -0,0 +1,134 @@
+package com.nepkart.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves a ZIP code to its state jurisdiction through a 1000-entry table indexed by
+ * the 3-digit ZIP prefix.
+ *
+ * The table is compiled at startup from a versioned range file
+ * ({@code nepkart.tax.zip-table}); overlapping ranges are rejected at load time rather
+ * than resolved by ordering. Lookups read the leading digits in place, so they neither
+ * parse strings nor allocate.
+ */
+@Service
+public class ZipJurisdictionResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(ZipJurisdictionResolver.class);
+
+    private static final int PREFIXES = 1000;
+
+    @Value("${nepkart.tax.zip-table:classpath:tax/zip3-jurisdictions.csv}")
+    private Resource tableResource;
+
+    private String version;
+
+    // Jurisdiction index + 1 per prefix, 0 where no jurisdiction applies
+    private byte[] jurisdictionByPrefix;
+    private String[] jurisdictions;
+
+    @PostConstruct
+    public void load() throws IOException {
+        byte[] table = new byte[PREFIXES];
+        List<String> codes = new ArrayList<>();
+        String fileVersion = null;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(tableResource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts[0].equals("version") && parts.length == 2) {
+                    fileVersion = parts[1].trim();
+                    continue;
+                }
+                if (parts.length != 3) {
+                    throw new IllegalStateException("Malformed ZIP table line " + lineNumber + ": " + line);
+                }
+                int start = Integer.parseInt(parts[0].trim());
+                int end = Integer.parseInt(parts[1].trim());
+                String code = parts[2].trim().toUpperCase();
+                if (start < 0 || end >= PREFIXES || start > end) {
+                    throw new IllegalStateException("Invalid ZIP prefix range on line " + lineNumber + ": " + line);
+                }
+                int index = codes.indexOf(code);
+                if (index < 0) {
+                    codes.add(code);
+                    index = codes.size() - 1;
+                }
+                for (int prefix = start; prefix <= end; prefix++) {
+                    if (table[prefix] != 0) {
+                        throw new IllegalStateException("ZIP prefix " + prefix + " assigned twice (line " + lineNumber + ")");
+                    }
+                    table[prefix] = (byte) (index + 1);
+                }
+            }
+        }
+        if (fileVersion == null) {
+            throw new IllegalStateException("ZIP table " + tableResource + " has no version line");
+        }
+
+        this.jurisdictions = codes.toArray(new String[0]);
+        this.jurisdictionByPrefix = table;
+        this.version = fileVersion;
+        log.info("Loaded ZIP jurisdiction table version {} ({} jurisdictions)", fileVersion, codes.size());
+    }
+
+    /**
+     * @return the two-letter state code, or null for malformed, unassigned or non-state ZIPs
+     */
+    public String resolveState(CharSequence zip) {
+        if (zip == null) {
+            return null;
+        }
+        int length = zip.length();
+        int i = 0;
+        while (i < length && Character.isWhitespace(zip.charAt(i))) {
+            i++;
+        }
+        if (length - i < 3) {
+            return null;
+        }
+        int prefix = 0;
+        for (int end = i + 3; i < end; i++) {
+            char c = zip.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+        int index = jurisdictionByPrefix[prefix];
+        return index == 0 ? null : jurisdictions[index - 1];
+    }
+
+    /**
+     * The state a cart is priced for: an explicit state code wins, otherwise the ZIP's
+     * jurisdiction. Checkout, quotes and shipping estimates all use this rule so the total
+     * shown before checkout is the one charged.
+     */
+    public String destinationState(String state, CharSequence zip) {
+        return state != null && !state.isBlank() ? state.trim().toUpperCase() : resolveState(zip);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,108 @@
+package com.nepkart.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nepkart.dto.CartLinesDTO;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "nepkart.shipping.max-cart-lines=300")
+@AutoConfigureMockMvc
+class CartLinesBindingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CartLinesBindingTest.class);
+
+    private static final int[] BENCHMARK_LINES = { 1, 10, 100, 500 };
+    private static final int BENCHMARK_ROUNDS = 2_000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void configuredCapAppliesWhileParsing() throws Exception {
+        assertThat(objectMapper.readValue(lines(300), CartLinesDTO.class).size()).isEqualTo(300);
+
+        assertThatThrownBy(() -> objectMapper.readValue(lines(301), CartLinesDTO.class))
+            .isInstanceOf(JsonMappingException.class)
+            .hasMessageContaining("Too many cart lines (max 300)");
+    }
+
+    @Test
+    void lineBeyondTheCapIsNotRead() {
+        // The extra line is malformed; the cap must reject the cart before looking at it
+        String body = lines(300).replaceFirst("]$", ",{\"productId\": \"oops\"");
+
+        assertThatThrownBy(() -> objectMapper.readValue(body, CartLinesDTO.class))
+            .isInstanceOf(JsonMappingException.class)
+            .hasMessageContaining("Too many cart lines (max 300)");
+    }
+
+    @Test
+    void oversizedCartIsRejectedWithErrorHeader() throws Exception {
+        mockMvc.perform(post("/api/shipping/calculate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lines(301)))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().string("X-Error-Message", "Too many cart lines (max 300)"));
+    }
+
+    /**
+     * Allocation benchmark: bytes allocated by the binding thread per parsed cart, for
+     * carts of 1 to 500 lines, using an unconfigured mapper (default cap of 500).
+     * Logs the figures; asserts only correctness.
+     */
+    @Test
+    void allocationPerCartBenchmark() throws Exception {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+        ObjectMapper mapper = new ObjectMapper();
+        for (int lineCount : BENCHMARK_LINES) {
+            byte[] body = lines(lineCount).getBytes();
+            for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+                mapper.readValue(body, CartLinesDTO.class);
+            }
+
+            long before = allocations.getCurrentThreadAllocatedBytes();
+            int parsedLines = 0;
+            for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+                parsedLines += mapper.readValue(body, CartLinesDTO.class).size();
+            }
+            long bytes = allocations.getCurrentThreadAllocatedBytes() - before;
+
+            log.info("Cart lines binding, {} lines: {} bytes per cart, {} bytes per line",
+                lineCount, bytes / BENCHMARK_ROUNDS, bytes / ((long) BENCHMARK_ROUNDS * lineCount));
+            assertThat(parsedLines).isEqualTo(BENCHMARK_ROUNDS * lineCount);
+        }
+    }
+
+    private static String lines(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"productId\": ").append(i).append(", \"quantity\": 1, \"weight\": 0.5}");
+        }
+        return json.append(']').toString();
+    }
+}
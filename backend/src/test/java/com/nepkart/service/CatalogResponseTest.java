@@ -0,0 +1,169 @@
+package com.nepkart.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nepkart.model.Product;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogResponseTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogResponseTest.class);
+
+    private static final int BENCHMARK_REQUESTS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void gzipAndIdentityBodiesCarryDistinctEtags() throws Exception {
+        createListing();
+
+        MockHttpServletResponse identity = fetch(null, null);
+        MockHttpServletResponse gzip = fetch("gzip, deflate", null);
+
+        assertThat(identity.getStatus()).isEqualTo(200);
+        assertThat(identity.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(identity.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzip.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzip.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"")
+            .isNotEqualTo(identity.getHeader(HttpHeaders.ETAG));
+        assertThat(gunzip(gzip.getContentAsByteArray())).isEqualTo(identity.getContentAsByteArray());
+    }
+
+    @Test
+    void refusedGzipFallsBackToIdentity() throws Exception {
+        createListing();
+
+        MockHttpServletResponse response = fetch("gzip;q=0, br", null);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).doesNotEndWith("-gzip\"");
+    }
+
+    @Test
+    void eitherEtagRevalidatesWithVary() throws Exception {
+        createListing();
+        String identityEtag = fetch(null, null).getHeader(HttpHeaders.ETAG);
+        String gzipEtag = fetch("gzip", null).getHeader(HttpHeaders.ETAG);
+
+        for (String etag : List.of(identityEtag, gzipEtag)) {
+            MockHttpServletResponse notModified = fetch("gzip", etag);
+            assertThat(notModified.getStatus()).isEqualTo(304);
+            assertThat(notModified.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+            assertThat(notModified.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+            assertThat(notModified.getContentAsByteArray()).isEmpty();
+        }
+
+        Product product = TestProducts.create(productService, 10);
+        MockHttpServletResponse changed = fetch("gzip", gzipEtag);
+        assertThat(changed.getStatus()).isEqualTo(200);
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(gzipEtag);
+
+        MockHttpServletResponse single = mockMvc.perform(get("/api/products/" + product.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, changed.getHeader(HttpHeaders.ETAG)))
+            .andReturn().getResponse();
+        assertThat(single.getStatus()).isEqualTo(304);
+        assertThat(single.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * CPU benchmark: thread CPU time per full-listing request when the gzip body comes from
+     * the cache, versus serializing and compressing the snapshot on every request.
+     * Logs the figures; asserts only that both produce the same body.
+     */
+    @Test
+    void cachedBodyCpuBenchmark() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isCurrentThreadCpuTimeSupported());
+        createListing();
+        ProductCatalog.Snapshot snapshot = productService.getCatalogSnapshot();
+
+        byte[] cached = null;
+        byte[] uncached = null;
+        long cachedNanos = 0;
+        long uncachedNanos = 0;
+        // First round warms up; the second is measured
+        for (int round = 0; round < 2; round++) {
+            long start = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < BENCHMARK_REQUESTS; i++) {
+                cached = catalogResponseCache.get(snapshot.version(), "all", snapshot::products).gzip();
+            }
+            cachedNanos = threads.getCurrentThreadCpuTime() - start;
+
+            start = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < BENCHMARK_REQUESTS; i++) {
+                uncached = gzip(objectMapper.writeValueAsBytes(snapshot.products()));
+            }
+            uncachedNanos = threads.getCurrentThreadCpuTime() - start;
+        }
+
+        log.info("Catalog listing of {} products ({} gzip bytes): cached {} ns CPU/request, serialize+gzip {} ns CPU/request",
+            snapshot.products().size(), cached.length,
+            cachedNanos / BENCHMARK_REQUESTS, uncachedNanos / BENCHMARK_REQUESTS);
+        assertThat(gunzip(cached)).isEqualTo(gunzip(uncached));
+    }
+
+    private MockHttpServletResponse fetch(String acceptEncoding, String ifNoneMatch) throws Exception {
+        var request = get("/api/products");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    // Enough products that the listing is above the gzip threshold
+    private void createListing() {
+        for (int i = 0; i < 20; i++) {
+            TestProducts.create(productService, 10);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
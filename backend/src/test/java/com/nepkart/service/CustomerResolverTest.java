@@ -0,0 +1,42 @@
+package com.nepkart.service;
+
+import com.nepkart.config.DatabaseVendor;
+import com.nepkart.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CustomerResolverTest {
+
+    @Autowired
+    private CustomerResolver customerResolver;
+
+    @Autowired
+    private DatabaseVendor databaseVendor;
+
+    @Test
+    void vendorComesFromTheConnectionNotTheDialectProperty() {
+        assertThat(databaseVendor.getProductName()).isEqualTo("H2");
+        assertThat(databaseVendor.isPostgreSql()).isFalse();
+    }
+
+    @Test
+    void emailsDifferingInCaseResolveToOneCustomer() {
+        String local = "resolver-" + UUID.randomUUID();
+
+        CustomerResolver.ResolvedCustomer first = customerResolver.resolve(customer(local + "@Example.com"));
+        CustomerResolver.ResolvedCustomer second = customerResolver.resolve(customer("  " + local.toUpperCase() + "@EXAMPLE.COM"));
+
+        assertThat(first.id()).isNotNull();
+        assertThat(second.id()).isEqualTo(first.id());
+    }
+
+    private static Customer customer(String email) {
+        return new Customer("Resolver", "Test", email, "555-0100", "1 Main St", "Springfield", "IL", "62701");
+    }
+}
@@ -0,0 +1,221 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.OrderRequestDTO;
+import com.nepkart.model.Customer;
+import com.nepkart.model.IdempotencyRecord;
+import com.nepkart.model.Product;
+import com.nepkart.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "shopper@example.com";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void reorderedCartLinesReplayTheOriginalResponse() {
+        String key = newKey();
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<?> first = idempotencyService.execute(SCOPE, key, request(1L, 2, 3L, 1),
+            () -> created(executions));
+        ResponseEntity<?> retry = idempotencyService.execute(SCOPE, key, request(3L, 1, 1L, 2),
+            () -> created(executions));
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void differentRequestUnderTheSameKeyIsRejected() {
+        String key = newKey();
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyService.execute(SCOPE, key, request(1L, 2, 3L, 1), () -> created(executions));
+        ResponseEntity<?> other = idempotencyService.execute(SCOPE, key, request(1L, 5, 3L, 1), () -> created(executions));
+
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void claimHoldsTheKeyForALeaseAndCompletionForTheTtl() {
+        String key = newKey();
+        AtomicReference<LocalDateTime> claimExpiry = new AtomicReference<>();
+
+        idempotencyService.execute(SCOPE, key, request(1L, 1, 2L, 1), () -> {
+            claimExpiry.set(idempotencyRecordRepository.findById(stored(key)).orElseThrow().getExpiresAt());
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(claimExpiry.get()).isBetween(now, now.plusMinutes(5));
+        IdempotencyRecord stored = idempotencyRecordRepository.findById(stored(key)).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(IdempotencyRecord.Status.COMPLETED);
+        assertThat(stored.getExpiresAt()).isAfter(now.plusHours(1));
+    }
+
+    @Test
+    void liveClaimFromAnotherNodeIsAConflict() {
+        String key = newKey();
+        LocalDateTime now = LocalDateTime.now();
+        idempotencyRecordRepository.save(new IdempotencyRecord(stored(key), "other-node", now.plusSeconds(60)));
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<?> response = idempotencyService.execute(SCOPE, key, request(1L, 1, 2L, 1), () -> created(executions));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(executions.get()).isZero();
+    }
+
+    @Test
+    void duplicateClaimInsertFailsWithAConstraintViolation() {
+        String key = newKey();
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> idempotencyRecordRepository.insertClaim(key, "first", now, now.plusSeconds(60)));
+
+        // The exception claim() treats as losing the race to another node
+        assertThatThrownBy(() -> tx.executeWithoutResult(status ->
+            idempotencyRecordRepository.insertClaim(key, "second", now, now.plusSeconds(60))))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverOnceItsLeaseExpires() {
+        String key = newKey();
+        idempotencyRecordRepository.save(new IdempotencyRecord(stored(key), "crashed-node", LocalDateTime.now().minusSeconds(1)));
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<?> response = idempotencyService.execute(SCOPE, key, request(1L, 1, 2L, 1), () -> created(executions));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void theSameKeyFromAnotherCustomerIsANewRequest() {
+        String key = newKey();
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyService.execute(SCOPE, key, request(1L, 1, 2L, 1), () -> created(executions));
+        ResponseEntity<?> other = idempotencyService.execute("other@example.com", key, request(1L, 5, 2L, 1),
+            () -> created(executions));
+        ResponseEntity<?> retry = idempotencyService.execute(SCOPE, key, request(1L, 1, 2L, 1), () -> created(executions));
+
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(other.getHeaders().getFirst("Idempotent-Replayed")).isNull();
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void orderIsRolledBackWhenItsResponseCannotBeStored() {
+        String key = newKey();
+        Product product = TestProducts.create(productService, 10);
+        AtomicReference<String> orderId = new AtomicReference<>();
+
+        // The order commits only together with its stored response; an unserializable body fails the store
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, key, request(product.getId(), 1, product.getId(), 1), () -> {
+            orderId.set(orderService.createOrder(customer(), Map.of(product.getId(), 1)).getOrderId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(new Object());
+        })).hasMessageContaining("Failed to serialize response");
+
+        assertThat(orderService.getOrderByOrderId(orderId.get())).isEmpty();
+        assertThat(idempotencyRecordRepository.findById(stored(key))).isEmpty();
+
+        // The claim was released, so the retry runs once and its order commits with the response
+        ResponseEntity<?> retry = idempotencyService.execute(SCOPE, key, request(product.getId(), 1, product.getId(), 1), () -> {
+            orderId.set(orderService.createOrder(customer(), Map.of(product.getId(), 1)).getOrderId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("orderId", orderId.get()));
+        });
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(orderService.getOrderByOrderId(orderId.get())).isPresent();
+        assertThat(idempotencyRecordRepository.findById(stored(key)).orElseThrow().getStatus())
+            .isEqualTo(IdempotencyRecord.Status.COMPLETED);
+    }
+
+    @Test
+    void rejectedOrderLeavesNoWritesAndStoresTheRejection() {
+        String key = newKey();
+        Product product = TestProducts.create(productService, 1);
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<?> rejected = idempotencyService.execute(SCOPE, key, request(product.getId(), 5, product.getId(), 5), () -> {
+            executions.incrementAndGet();
+            try {
+                orderService.createOrder(customer(), Map.of(product.getId(), 5));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().header("X-Error-Message", e.getMessage()).build();
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        });
+        ResponseEntity<?> retry = idempotencyService.execute(SCOPE, key, request(product.getId(), 5, product.getId(), 5),
+            () -> created(executions));
+
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    private static ResponseEntity<?> created(AtomicInteger executions) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("execution", executions.incrementAndGet()));
+    }
+
+    private static OrderRequestDTO request(Long firstId, int firstQty, Long secondId, int secondQty) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(firstId, firstQty);
+        quantities.put(secondId, secondQty);
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setProductQuantities(quantities);
+        return request;
+    }
+
+    private static Customer customer() {
+        return new Customer("Idempotent", "Shopper", "idem-" + UUID.randomUUID() + "@example.com", "555-0100",
+            "1 Main St", "Springfield", "IL", "62701");
+    }
+
+    private static String stored(String key) {
+        return IdempotencyService.scopedKey(SCOPE, key);
+    }
+
+    private static String newKey() {
+        return "test-" + UUID.randomUUID();
+    }
+}
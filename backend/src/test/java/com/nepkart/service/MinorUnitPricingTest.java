@@ -0,0 +1,194 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Money;
+import com.nepkart.model.Order;
+import com.nepkart.model.OrderItem;
+import com.nepkart.model.Product;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Property checks: on random carts, the long minor-unit pricing path gives exactly what the
+ * BigDecimal arithmetic it replaced gave.
+ */
+class MinorUnitPricingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MinorUnitPricingTest.class);
+
+    private static final int BENCHMARK_LINES = 50;
+    private static final int BENCHMARK_ROUNDS = 20_000;
+
+    private static final int CASES = 200_000;
+    private static final long SEED = 20260118L;
+
+    private final TaxService taxService = new TaxService();
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, BigDecimal> stateRates =
+        (Map<String, BigDecimal>) ReflectionTestUtils.getField(TaxService.class, "STATE_RATES");
+
+    @Test
+    void taxMatchesBigDecimalRoundingForEveryStateRate() {
+        Random random = new Random(SEED);
+        String[] states = stateRates.keySet().toArray(new String[0]);
+
+        for (int i = 0; i < CASES; i++) {
+            long subtotal = randomAmount(random, 10_000_000);
+            String state = states[random.nextInt(states.length)];
+
+            BigDecimal expected = Money.toDecimal(subtotal).multiply(stateRates.get(state)).setScale(2, RoundingMode.HALF_UP);
+
+            assertThat(Money.toDecimal(taxService.calculateTaxMinorForState(subtotal, state)))
+                .as("%s on %d", state, subtotal)
+                .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void applyRateRoundsHalfUpLikeBigDecimalIncludingNegatives() {
+        Random random = new Random(SEED + 1);
+
+        for (int i = 0; i < CASES; i++) {
+            long amount = randomAmount(random, 100_000_000) * (random.nextBoolean() ? 1 : -1);
+            int scale = random.nextInt(7);
+            long units = random.nextInt((int) Math.pow(10, Math.min(scale + 2, 9)));
+            BigDecimal rate = BigDecimal.valueOf(units, scale);
+
+            long[] parts = Money.rateParts(rate);
+            BigDecimal expected = Money.toDecimal(amount).multiply(rate).setScale(2, RoundingMode.HALF_UP);
+
+            assertThat(Money.toDecimal(Money.applyRate(amount, parts[0], (int) parts[1])))
+                .as("%d x %s", amount, rate)
+                .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void orderTotalsMatchBigDecimalSums() {
+        Random random = new Random(SEED + 2);
+
+        for (int i = 0; i < CASES / 20; i++) {
+            Order order = new Order();
+            BigDecimal expectedSubtotal = BigDecimal.ZERO;
+            int lines = 1 + random.nextInt(20);
+            for (int line = 0; line < lines; line++) {
+                BigDecimal price = Money.toDecimal(1 + randomAmount(random, 99_999));
+                int quantity = 1 + random.nextInt(50);
+                order.addOrderItem(new OrderItem(order, product(price), quantity));
+                expectedSubtotal = expectedSubtotal.add(price.multiply(BigDecimal.valueOf(quantity)));
+            }
+            BigDecimal shipping = Money.toDecimal(randomAmount(random, 10_000));
+            BigDecimal tax = Money.toDecimal(randomAmount(random, 100_000));
+            order.setShippingCost(shipping);
+            order.setTax(tax);
+
+            order.calculateTotal();
+
+            assertThat(order.getSubtotal()).isEqualByComparingTo(expectedSubtotal);
+            assertThat(order.getTotal()).isEqualByComparingTo(expectedSubtotal.add(shipping).add(tax));
+        }
+    }
+
+    @Test
+    void fromDecimalRoundsExtraDecimalsHalfUp() {
+        Random random = new Random(SEED + 3);
+
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, random.nextInt(6));
+
+            assertThat(Money.toDecimal(Money.fromDecimal(amount)))
+                .isEqualTo(amount.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    void priceMinorFollowsEveryWayThePriceChanges() {
+        Random random = new Random(SEED + 4);
+        Product product = product(new BigDecimal("5.00"));
+
+        for (int i = 0; i < CASES / 20; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextLong() % 1_000_000_000L, random.nextInt(4));
+            if (random.nextBoolean()) {
+                product.setPrice(price);
+            } else {
+                // As Hibernate writes it on load or merge, bypassing the setter
+                ReflectionTestUtils.setField(product, "price", price);
+            }
+
+            assertThat(product.getPriceMinor()).isEqualTo(Money.fromDecimal(price));
+        }
+    }
+
+    /**
+     * Allocation benchmark: bytes allocated per cart line when a {@value #BENCHMARK_LINES}-line
+     * cart is priced from the cached minor price, versus converting each line's BigDecimal
+     * price as quoteCart and createOrder used to. Logs the figures; asserts only correctness.
+     */
+    @Test
+    void cartPricingAllocationBenchmark() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+        Random random = new Random(SEED + 5);
+        Product[] cart = new Product[BENCHMARK_LINES];
+        for (int i = 0; i < cart.length; i++) {
+            cart[i] = product(Money.toDecimal(1 + randomAmount(random, 99_999)));
+        }
+
+        long cached = 0;
+        long converted = 0;
+        long cachedBytes = 0;
+        long convertedBytes = 0;
+        // First round warms up; the second is measured
+        for (int round = 0; round < 2; round++) {
+            long before = allocations.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+                cached = 0;
+                for (Product product : cart) {
+                    cached = Money.plus(cached, Money.times(product.getPriceMinor(), 3));
+                }
+            }
+            cachedBytes = allocations.getCurrentThreadAllocatedBytes() - before;
+
+            before = allocations.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+                converted = 0;
+                for (Product product : cart) {
+                    converted = Money.plus(converted, Money.times(Money.fromDecimal(product.getPrice()), 3));
+                }
+            }
+            convertedBytes = allocations.getCurrentThreadAllocatedBytes() - before;
+        }
+
+        long lines = (long) BENCHMARK_ROUNDS * BENCHMARK_LINES;
+        log.info("Cart pricing, {} lines: cached minor price {} bytes per line, per-line fromDecimal {} bytes per line",
+            BENCHMARK_LINES, cachedBytes / lines, convertedBytes / lines);
+        assertThat(cached).isEqualTo(converted);
+    }
+
+    // Cents with a bias towards small amounts and exact halves, where rounding goes wrong
+    private static long randomAmount(Random random, long bound) {
+        return switch (random.nextInt(4)) {
+            case 0 -> random.nextInt(1_000);
+            case 1 -> random.nextInt(200) * 50L;
+            default -> (random.nextLong() & Long.MAX_VALUE) % bound;
+        };
+    }
+
+    private static Product product(BigDecimal price) {
+        return new Product("SKU", "Test", "Food", price, 1, 1, new BigDecimal("0.50"), "Kathmandu, Nepal");
+    }
+}
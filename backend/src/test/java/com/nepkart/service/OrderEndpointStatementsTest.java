@@ -0,0 +1,161 @@
+package com.nepkart.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nepkart.model.Customer;
+import com.nepkart.model.Order;
+import com.nepkart.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Statement counts per order endpoint, measured around the whole request including JSON
+ * serialization. Open-in-view is off, so a lazy association the service did not load
+ * fails the request instead of quietly issuing more queries.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderEndpointStatementsTest {
+
+    private static final int ORDERS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private LocalDateTime createdFrom;
+    private Product first;
+    private Product second;
+    private List<Order> orders;
+
+    @BeforeEach
+    void createOrders() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        createdFrom = LocalDateTime.now().minusSeconds(1);
+
+        first = TestProducts.create(productService, 1000);
+        second = TestProducts.create(productService, 1000);
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(orderService.createOrder(customer(), Map.of(first.getId(), 1, second.getId(), 2)));
+        }
+    }
+
+    @Test
+    void detailEndpointsSerializeTheGraphFromOneStatement() throws Exception {
+        Order order = orders.get(0);
+
+        for (String path : List.of("/api/orders/" + order.getId(), "/api/orders/order-id/" + order.getOrderId())) {
+            JsonNode body = perform(get(path), 1);
+            assertThat(body.get("customer").get("email").asText()).endsWith("@example.com");
+            assertThat(body.get("orderItems")).hasSize(2);
+            assertThat(body.get("orderItems").get(0).get("product").get("sku").asText()).startsWith("TEST-");
+        }
+    }
+
+    @Test
+    void pageEndpointCostsThreeStatementsRegardlessOfSize() throws Exception {
+        // Orders joined with customers, then one batch each for items and products
+        JsonNode body = perform(get("/api/orders/page")
+            .param("from", createdFrom.toString())
+            .param("size", String.valueOf(ORDERS)), 3);
+
+        assertThat(body.get("orders")).hasSize(ORDERS);
+        for (JsonNode order : body.get("orders")) {
+            assertThat(order.get("customer").get("lastName").asText()).isEqualTo("Endpoint");
+            assertThat(order.get("orderItems")).hasSize(2);
+            assertThat(order.get("orderItems").get(1).get("product").get("name").asText()).startsWith("Test ");
+        }
+    }
+
+    @Test
+    void fullListingCostsThreeStatements() throws Exception {
+        // Holds while the table has no more orders than the batch fetch size
+        JsonNode body = perform(get("/api/orders"), 3);
+
+        assertThat(body.size()).isGreaterThanOrEqualTo(ORDERS);
+        assertThat(body.get(0).get("orderItems").get(0).get("product").get("id").isNumber()).isTrue();
+    }
+
+    @Test
+    void statusUpdateLoadsOnlyTheOrderRow() throws Exception {
+        Order order = orders.get(0);
+
+        // One select, then the orders and order_summary updates
+        JsonNode body = perform(put("/api/orders/" + order.getId() + "/status")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"status\":\"IN_PROGRESS\"}"), 3);
+
+        assertThat(body.get("orderId").asText()).isEqualTo(order.getOrderId());
+        assertThat(body.get("status").asText()).isEqualTo("IN_PROGRESS");
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void createdOrderSerializesWithoutLazyLoads() throws Exception {
+        Map<String, Object> request = Map.of(
+            "customer", Map.of("firstName", "Created", "lastName", "Endpoint",
+                "email", "endpoint-" + UUID.randomUUID() + "@example.com", "phone", "555-0100",
+                "address", "1 Main St", "city", "Springfield", "state", "IL", "zipCode", "62701"),
+            "productQuantities", Map.of(String.valueOf(first.getId()), 1));
+
+        statistics.clear();
+        MockHttpServletResponse response = mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertThat(body.get("customer").get("firstName").asText()).isEqualTo("Created");
+        assertThat(body.get("orderItems").get(0).get("product").get("id").asLong()).isEqualTo(first.getId());
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    private JsonNode perform(RequestBuilder request, long expectedStatements) throws Exception {
+        statistics.clear();
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    private static Customer customer() {
+        String email = "endpoint-" + UUID.randomUUID() + "@example.com";
+        return new Customer("Order", "Endpoint", email, "555-0100", "1 Main St", "Springfield", "IL", "62701");
+    }
+}
@@ -0,0 +1,129 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Customer;
+import com.nepkart.model.Order;
+import com.nepkart.model.OrderItem;
+import com.nepkart.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for each order fetch plan, independent of how many orders and lines
+ * are involved.
+ */
+@SpringBootTest
+class OrderFetchPlanTest {
+
+    private static final int ORDERS = 6;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate tx;
+    private LocalDateTime createdFrom;
+    private List<Order> orders;
+
+    @BeforeEach
+    void createOrders() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        tx = new TransactionTemplate(transactionManager);
+        createdFrom = LocalDateTime.now().minusSeconds(1);
+
+        Product first = TestProducts.create(productService, 1000);
+        Product second = TestProducts.create(productService, 1000);
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            String email = "fetch-" + UUID.randomUUID() + "@example.com";
+            Customer customer = new Customer("Fetch", "Plan" + i, email, "555-0100",
+                "1 Main St", "Springfield", "IL", "62701");
+            orders.add(tx.execute(status ->
+                orderService.createOrder(customer, Map.of(first.getId(), 1, second.getId(), 2))));
+        }
+    }
+
+    @Test
+    void detailLookupLoadsTheWholeGraphInOneStatement() {
+        Long id = orders.get(0).getId();
+
+        long statements = countStatements(() -> {
+            Order order = orderService.getOrderById(id).orElseThrow();
+            touch(List.of(order));
+        });
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void pageCostsThreeStatementsRegardlessOfSize() {
+        long statements = countStatements(() -> {
+            List<Order> page = orderService.getOrderPage(null, createdFrom, null, null, ORDERS).getOrders();
+            assertThat(page).hasSize(ORDERS);
+            touch(page);
+        });
+
+        // Orders joined with customers, then one batch each for items and products
+        assertThat(statements).isEqualTo(3);
+    }
+
+    @Test
+    void statusUpdateLoadsOnlyTheOrderRow() {
+        Long id = orders.get(0).getId();
+
+        statistics.clear();
+        tx.executeWithoutResult(status -> orderService.updateOrderStatus(id, Order.OrderStatus.IN_PROGRESS));
+
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void deleteRunsSetBasedStatementsWithoutLoadingTheGraph() {
+        Long id = orders.get(0).getId();
+
+        long statements = countStatements(() -> orderService.deleteOrder(id));
+
+        assertThat(statements).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(orderService.getOrderById(id)).isEmpty();
+    }
+
+    private long countStatements(Runnable work) {
+        statistics.clear();
+        tx.executeWithoutResult(status -> work.run());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static void touch(List<Order> orders) {
+        for (Order order : orders) {
+            order.getCustomer().getEmail();
+            for (OrderItem item : order.getOrderItems()) {
+                item.getProduct().getName();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.OrderSummaryPageDTO;
+import com.nepkart.model.Customer;
+import com.nepkart.model.Order;
+import com.nepkart.model.OrderSummary;
+import com.nepkart.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderSummaryPageTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void checkoutInsertsTheSummaryWithoutSelectingItFirst() {
+        Product product = TestProducts.create(productService, 1000);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        createOrder(product);
+
+        EntityStatistics summaries = statistics.getEntityStatistics(OrderSummary.class.getName());
+        assertThat(summaries.getInsertCount()).isEqualTo(1);
+        assertThat(summaries.getLoadCount()).isZero();
+        assertThat(summaries.getFetchCount()).isZero();
+    }
+
+    @Test
+    void cursorsWalkEverySummaryExactlyOnce() {
+        LocalDateTime from = LocalDateTime.now().minusSeconds(1);
+        Product product = TestProducts.create(productService, 1000);
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(createOrder(product).getOrderId());
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderSummaryPageDTO page = orderService.getOrderSummaryPage(null, from, null, cursor, 3);
+            page.getSummaries().forEach(summary -> seen.add(summary.getOrderId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(created);
+    }
+
+    @Test
+    void tamperedCursorsAreRejectedAsInvalid() {
+        for (String raw : List.of("not-a-date|12", "2024-01-01T00:00|twelve", "no separator")) {
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> orderService.getOrderSummaryPage(null, null, null, cursor, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+        }
+        assertThatThrownBy(() -> orderService.getOrderPage(null, null, null, "%%%", 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Invalid cursor");
+    }
+
+    private Order createOrder(Product product) {
+        String email = "summary-" + UUID.randomUUID() + "@example.com";
+        Customer customer = new Customer("Summary", "Page", email, "555-0100",
+            "1 Main St", "Springfield", "IL", "62701");
+        return orderService.createOrder(customer, Map.of(product.getId(), 1));
+    }
+}
@@ -0,0 +1,42 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import com.nepkart.repository.ProductRepositoryCustom;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductLikeSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void wildcardsInTheSearchTermMatchLiterally() {
+        String token = "zq" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+        Product percent = TestProducts.create(productService, token + " 50% off", "Food", 10, 1);
+        TestProducts.create(productService, token + " 500 pack", "Food", 10, 1);
+        Product underscore = TestProducts.create(productService, token + " tea_bags", "Food", 10, 1);
+        TestProducts.create(productService, token + " teaxbags", "Food", 10, 1);
+        Product bang = TestProducts.create(productService, token + " wow!", "Food", 10, 1);
+
+        assertThat(productRepository.searchProductsIgnoreCase(token.toUpperCase() + " 50%", PageRequest.of(0, 10)))
+            .extracting(Product::getId).containsExactly(percent.getId());
+        assertThat(productRepository.searchProducts(token + " tea_", PageRequest.of(0, 10)))
+            .extracting(Product::getId).containsExactly(underscore.getId());
+        assertThat(productRepository.searchProducts(token + " wow!", PageRequest.of(0, 10)))
+            .extracting(Product::getId).containsExactly(bang.getId());
+        assertThat(productRepository.countMatching(new ProductRepositoryCustom.Filter(null, token + " 50%", null, null)))
+            .isEqualTo(1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.nepkart.service;
+
+import com.nepkart.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "nepkart.search.max-results=3")
+class ProductSearchLimitTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void indexedSearchReturnsAtMostMaxResults() {
+        String token = createMatchingProducts(5);
+
+        assertThat(productService.searchProducts(token)).hasSize(3)
+            .allMatch(product -> product.getName().contains(token));
+    }
+
+    @Test
+    void likeFallbackIsCappedToo() {
+        String token = createMatchingProducts(5);
+
+        assertThat(productRepository.searchProducts(token, PageRequest.of(0, 3))).hasSize(3);
+        assertThat(productRepository.searchProductsIgnoreCase(token.toUpperCase(), PageRequest.of(0, 3))).hasSize(3);
+    }
+
+    private String createMatchingProducts(int count) {
+        String token = "zq" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+        for (int i = 0; i < count; i++) {
+            TestProducts.create(productService, token + " tea " + i, "Food", 10, 1);
+        }
+        return token;
+    }
+}
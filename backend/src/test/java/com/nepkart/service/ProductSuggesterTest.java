@@ -0,0 +1,214 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.ProductSuggestionDTO;
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggesterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggesterTest.class);
+
+    private static final String[] WORDS = { "wai", "noodles", "churpi", "gundruk", "momo", "masala", "dhaka",
+        "topi", "pashmina", "shawl", "singing", "bowl", "prayer", "flags", "tea", "ilam", "lokta", "paper" };
+
+    @Test
+    void tokenPrefixesOfNameSkuAndOriginMatch() {
+        ProductSuggester suggester = suggester(10,
+            product(1, "Wai Wai Noodles", "NEP-FOOD-001", "Kathmandu, Nepal", 100),
+            product(2, "Churpi", "NEP-FOOD-002", "Himalayan Region, Nepal", 100));
+
+        assertThat(ids(suggester.suggest("nood", 10))).containsExactly(1L);
+        assertThat(ids(suggester.suggest("NOODLES", 10))).containsExactly(1L);
+        assertThat(ids(suggester.suggest("himal", 10))).containsExactly(2L);
+        assertThat(ids(suggester.suggest("nep-food-00", 10))).containsExactly(1L, 2L);
+        assertThat(suggester.suggest("xyz", 10)).isEmpty();
+        assertThat(suggester.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void wholeFieldPhrasesMatchAcrossTokens() {
+        ProductSuggester suggester = suggester(10,
+            product(1, "Wai Wai Noodles", "SKU-1", "Nepal", 100),
+            product(2, "Wai Chips", "SKU-2", "Nepal", 100));
+
+        assertThat(ids(suggester.suggest("wai wai n", 10))).containsExactly(1L);
+        assertThat(ids(suggester.suggest("wai c", 10))).containsExactly(2L);
+        assertThat(ids(suggester.suggest("wai", 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void unitsSoldThroughSetStockReorderAndPromoteIntoFullLists() {
+        // Room for two results, so the third product has to be promoted past the cut
+        ProductSuggester suggester = suggester(2,
+            product(1, "Tea Ilam", "SKU-1", "Nepal", 100),
+            product(2, "Tea Masala", "SKU-2", "Nepal", 100),
+            product(3, "Tea Lokta", "SKU-3", "Nepal", 100));
+        assertThat(ids(suggester.suggest("tea", 10))).containsExactly(1L, 2L);
+
+        suggester.setStock(Map.of(3L, 95));
+        assertThat(ids(suggester.suggest("tea", 10))).containsExactly(3L, 1L);
+
+        suggester.setStock(Map.of(2L, 90));
+        assertThat(ids(suggester.suggest("tea", 10))).containsExactly(2L, 3L);
+        assertThat(suggester.suggest("tea", 10).get(0).getStock()).isEqualTo(90);
+
+        // Restocking is not a sale and does not change the order
+        suggester.setStock(Map.of(1L, 500));
+        assertThat(ids(suggester.suggest("tea", 10))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void renamesAndDeletesRecomputeListsAndPruneEmptiedNodes() {
+        ProductSuggester suggester = suggester(2,
+            product(1, "Momo Masala", "SKU-1", "Nepal", 100),
+            product(2, "Momo Plate", "SKU-2", "Nepal", 100),
+            product(3, "Momo Steamer", "SKU-3", "Nepal", 100));
+        suggester.setStock(Map.of(1L, 50, 2L, 80));
+        int nodes = suggester.nodeCount();
+
+        // Renaming the best seller keeps its popularity under the new name only
+        Product renamed = product(1, "Zzyzx Spice", "SKU-1", "Nepal", 50);
+        suggester.upsert(renamed);
+        assertThat(ids(suggester.suggest("momo", 10))).containsExactly(2L, 3L);
+        assertThat(ids(suggester.suggest("zzyzx", 10))).containsExactly(1L);
+        assertThat(suggester.suggest("masala", 10)).isEmpty();
+
+        // Deleting it leaves no trace of its keys; the old prefixes were shared and stay
+        suggester.remove(1L);
+        assertThat(suggester.suggest("zzyzx", 10)).isEmpty();
+        assertThat(suggester.suggest("zz", 10)).isEmpty();
+        assertThat(suggester.nodeCount()).isLessThan(nodes);
+
+        suggester.remove(2L);
+        assertThat(ids(suggester.suggest("momo", 10))).containsExactly(3L);
+        assertThat(ids(suggester.suggest("sku", 10))).containsExactly(3L);
+
+        suggester.remove(3L);
+        assertThat(suggester.suggest("m", 10)).isEmpty();
+        assertThat(suggester.nodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void noSuggestionsBeforeTheIndexIsBuilt() {
+        ProductSuggester suggester = new ProductSuggester(10);
+        ProductRepository repository = mock(ProductRepository.class);
+        ReflectionTestUtils.setField(suggester, "productRepository", repository);
+
+        assertThat(suggester.suggest("wai", 10)).isEmpty();
+    }
+
+    @Test
+    void updateArrivingWhileTheRowsLoadIsNotOverwrittenByTheRebuild() throws Exception {
+        Product stale = product(1, "Old Name", "SKU-1", "Nepal", 100);
+        Product renamed = product(1, "New Name", "SKU-1", "Nepal", 100);
+        ProductSuggester suggester = new ProductSuggester(10);
+        ProductRepository repository = mock(ProductRepository.class);
+        ReflectionTestUtils.setField(suggester, "productRepository", repository);
+        Thread writer = new Thread(() -> suggester.upsert(renamed));
+        when(repository.findAll()).thenAnswer(invocation -> {
+            // The rename commits after the rows were read and reaches the view mid-rebuild
+            writer.start();
+            Thread.sleep(200);
+            return List.of(stale);
+        });
+        when(repository.findUnitsSold()).thenReturn(List.of());
+
+        suggester.rebuild();
+        writer.join();
+
+        assertThat(ids(suggester.suggest("new", 10))).containsExactly(1L);
+        assertThat(suggester.suggest("old", 10)).isEmpty();
+    }
+
+    /**
+     * Latency benchmark for the acceptance target of p99 under 1 ms: random 1-6 character
+     * prefixes of product words against 20,000 products, timed one lookup at a time after
+     * warm-up. Also logs the bytes a lookup allocates, where the JVM can report it.
+     */
+    @Test
+    void lookupLatencyBenchmark() {
+        Random random = new Random(19);
+        Product[] products = new Product[20_000];
+        for (int i = 0; i < products.length; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            products[i] = product(i + 1, name, "SKU-" + (i + 1), "Kathmandu, Nepal", 1000);
+        }
+        ProductSuggester suggester = suggester(10, products);
+        for (int i = 0; i < products.length; i += 7) {
+            suggester.setStock(Map.of((long) i + 1, 1000 - random.nextInt(100)));
+        }
+
+        String[] queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            queries[i] = word.substring(0, 1 + random.nextInt(Math.min(6, word.length())));
+        }
+        for (int i = 0; i < 50_000; i++) {
+            suggester.suggest(queries[i & 1023], 10);
+        }
+
+        int lookups = 100_000;
+        long[] nanos = new long[lookups];
+        int returned = 0;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported() ? bean : null;
+        long allocatedBefore = allocations != null ? allocations.getCurrentThreadAllocatedBytes() : 0;
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            returned += suggester.suggest(queries[i & 1023], 10).size();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long allocated = allocations != null ? allocations.getCurrentThreadAllocatedBytes() - allocatedBefore : -1;
+        Arrays.sort(nanos);
+
+        long p50 = nanos[lookups / 2];
+        long p99 = nanos[lookups * 99 / 100];
+        log.info("Suggest over {} products: p50 {} ns, p99 {} ns, max {} ns, {} bytes allocated per lookup",
+            products.length, p50, p99, nanos[lookups - 1], allocated < 0 ? "n/a" : allocated / lookups);
+        assertThat(returned).isEqualTo(lookups * 10);
+        assertThat(p99).isLessThan(1_000_000L);
+    }
+
+    private static ProductSuggester suggester(int maxResults, Product... products) {
+        ProductSuggester suggester = new ProductSuggester(maxResults);
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findAll()).thenReturn(List.of(products));
+        when(repository.findUnitsSold()).thenReturn(List.of());
+        ReflectionTestUtils.setField(suggester, "productRepository", repository);
+        suggester.rebuild();
+        return suggester;
+    }
+
+    private static Product product(long id, String name, String sku, String origin, int stock) {
+        Product product = new Product(sku, name, "Food", new BigDecimal("5.00"), stock, 1,
+            new BigDecimal("0.50"), origin);
+        product.setId(id);
+        return product;
+    }
+
+    private static List<Long> ids(List<ProductSuggestionDTO> suggestions) {
+        List<Long> ids = new ArrayList<>();
+        for (ProductSuggestionDTO suggestion : suggestions) {
+            ids.add(suggestion.getId());
+        }
+        return ids;
+    }
+}
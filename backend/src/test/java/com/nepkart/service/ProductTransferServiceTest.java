@@ -0,0 +1,117 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.ProductImportResultDTO;
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductTransferServiceTest {
+
+    @Autowired
+    private ProductTransferService productTransferService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        List<List<String>> records = parse("a,\"b,c\",\"say \"\"hi\"\"\"\n\"line one\nline two\",,\"\"\n");
+
+        assertThat(records).containsExactly(
+            List.of("a", "b,c", "say \"hi\""),
+            List.of("line one\nline two", "", ""));
+    }
+
+    @Test
+    void crlfEndsRecordsButStaysInsideQuotes() throws IOException {
+        List<List<String>> records = parse("sku,name\r\nA-1,\"two\r\nlines\"\r\nA-2,plain");
+
+        assertThat(records).containsExactly(
+            List.of("sku", "name"),
+            List.of("A-1", "two\r\nlines"),
+            List.of("A-2", "plain"));
+    }
+
+    @Test
+    void quoteAtEndOfInputClosesTheField() throws IOException {
+        assertThat(parse("x,\"quoted\"")).containsExactly(List.of("x", "quoted"));
+        assertThat(parse("")).isEmpty();
+    }
+
+    @Test
+    void csvRoundTripsThroughExportAndRetriesFailedBatchesRowByRow() throws IOException {
+        String prefix = "RT-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        // The last row passes bean validation but is longer than the description column,
+        // so the batch fails in the database and is retried one row at a time
+        String csv = "sku,name,category,price,stock,lowStockThreshold,weight,origin,description,imageUrl\r\n"
+            + prefix + "1,\"Tea, Ilam\",Food,5.25,10,2,0.25,\"Ilam, Nepal\",\"Said \"\"best\"\"\",\r\n"
+            + prefix + "2,Lokta Paper,Decor,3.00,40,5,0.10,Nepal,\"First line\r\nSecond line\",https://example.com/a.png\r\n"
+            + prefix + "3,Topi,Clothing,12.50,0,1,0.20,Bhaktapur,,\r\n"
+            + prefix + "4,Too Long,Food,1.00,1,1,0.10,Nepal," + "x".repeat(1001) + ",\r\n";
+
+        ProductImportResultDTO imported = importCsv(csv);
+
+        assertThat(imported.getCreated()).isEqualTo(3);
+        assertThat(imported.getUpdated()).isZero();
+        assertThat(imported.getFailed()).isEqualTo(1);
+        assertThat(imported.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.row()).isEqualTo(4);
+            assertThat(error.sku()).isEqualTo(prefix + "4");
+        });
+        assertThat(productRepository.findBySkuIn(List.of(prefix + "4"))).isEmpty();
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        productTransferService.exportProducts(ProductTransferService.Format.CSV, exported);
+        String exportedCsv = exported.toString(StandardCharsets.UTF_8);
+        Map<String, List<String>> bySku = parse(exportedCsv).stream()
+            .filter(record -> record.get(0).startsWith(prefix))
+            .collect(Collectors.toMap(record -> record.get(0), Function.identity()));
+
+        assertThat(bySku).containsOnlyKeys(prefix + "1", prefix + "2", prefix + "3");
+        assertThat(bySku.get(prefix + "1")).containsExactly(prefix + "1", "Tea, Ilam", "Food", "5.25", "10", "2",
+            "0.25", "Ilam, Nepal", "Said \"best\"", "");
+        assertThat(bySku.get(prefix + "2").get(8)).isEqualTo("First line\r\nSecond line");
+        assertThat(bySku.get(prefix + "3").get(8)).isEmpty();
+
+        // Importing the export back changes nothing and creates nothing
+        ProductImportResultDTO reimported = importCsv(exportedCsv);
+        assertThat(reimported.getCreated()).isZero();
+        assertThat(reimported.getFailed()).isZero();
+        assertThat(reimported.getUpdated()).isGreaterThanOrEqualTo(3);
+        Product product = productRepository.findBySkuIn(List.of(prefix + "2")).get(0);
+        assertThat(product.getDescription()).isEqualTo("First line\r\nSecond line");
+        assertThat(product.getImageUrl()).isEqualTo("https://example.com/a.png");
+    }
+
+    private ProductImportResultDTO importCsv(String csv) throws IOException {
+        return productTransferService.importProducts(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductTransferService.Format.CSV);
+    }
+
+    private static List<List<String>> parse(String csv) throws IOException {
+        ProductTransferService.CsvSource source = new ProductTransferService.CsvSource(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = source.readRecord()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
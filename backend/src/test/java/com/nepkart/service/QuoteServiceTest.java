@@ -0,0 +1,89 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.QuoteDTO;
+import com.nepkart.dto.QuoteRequestDTO;
+import com.nepkart.model.Customer;
+import com.nepkart.model.Order;
+import com.nepkart.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class QuoteServiceTest {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void repeatedCheckoutQuoteIsServedFromTheCache() {
+        Product product = TestProducts.create(productService, 10);
+        QuoteRequestDTO.Cart cart = checkoutCart(product, "10001", "NY");
+
+        QuoteDTO first = quoteService.quote(List.of(cart)).get(0);
+        long hits = quoteService.getCacheStats().getHits();
+        QuoteDTO second = quoteService.quote(List.of(checkoutCart(product, "10001", "NY"))).get(0);
+
+        assertThat(first.getError()).isNull();
+        assertThat(quoteService.getCacheStats().getHits()).isEqualTo(hits + 1);
+        assertThat(second.getTotal()).isEqualByComparingTo(first.getTotal());
+        assertThat(second.getTax()).isEqualByComparingTo(first.getTax());
+        assertThat(second.getShippingCost()).isEqualByComparingTo(first.getShippingCost());
+    }
+
+    @Test
+    void priceChangeRepricesTheCachedCart() {
+        Product product = TestProducts.create(productService, 10);
+        quoteService.quote(List.of(checkoutCart(product, "10001", "NY")));
+
+        product.setPrice(new BigDecimal("7.00"));
+        productService.updateProduct(product.getId(), product);
+        QuoteDTO repriced = quoteService.quote(List.of(checkoutCart(product, "10001", "NY"))).get(0);
+
+        assertThat(repriced.getSubtotal()).isEqualByComparingTo("14.00");
+    }
+
+    @Test
+    void quoteMatchesTheOrderWhenZipAndStateDisagree() {
+        // 10001 is in New York; the state picked at checkout wins for both
+        assertQuoteMatchesOrder("10001", "CA");
+        // No jurisdiction for the 000 prefix, so only the state can price the tax
+        assertQuoteMatchesOrder("00001", "NY");
+    }
+
+    private void assertQuoteMatchesOrder(String zipCode, String state) {
+        Product product = TestProducts.create(productService, 10);
+        QuoteDTO quote = quoteService.quote(List.of(checkoutCart(product, zipCode, state))).get(0);
+
+        Customer customer = new Customer("Quote", "Match", "quote-" + UUID.randomUUID() + "@example.com",
+            "555-0100", "1 Main St", "Springfield", state, zipCode);
+        Order order = orderService.createOrder(customer, Map.of(product.getId(), 2));
+
+        assertThat(quote.getTax()).isPositive();
+        assertThat(order.getShippingCost()).isEqualByComparingTo(quote.getShippingCost());
+        assertThat(order.getTax()).isEqualByComparingTo(quote.getTax());
+        assertThat(order.getTotal()).isEqualByComparingTo(quote.getTotal());
+    }
+
+    private static QuoteRequestDTO.Cart checkoutCart(Product product, String zipCode, String state) {
+        QuoteRequestDTO.Cart cart = new QuoteRequestDTO.Cart();
+        cart.setReference("checkout");
+        cart.setProductQuantities(Map.of(product.getId(), 2));
+        cart.setZipCode(zipCode);
+        cart.setState(state);
+        return cart;
+    }
+}
@@ -0,0 +1,93 @@
+package com.nepkart.service;
+
+import com.nepkart.dto.CartLinesDTO;
+import com.nepkart.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ShippingDestinationTest {
+
+    private static final Path RATES = writeRates("test.1", 1599);
+
+    @DynamicPropertySource
+    static void rateTable(DynamicPropertyRegistry registry) {
+        registry.add("nepkart.shipping.rate-table", () -> "file:" + RATES);
+    }
+
+    @Autowired
+    private ShippingService shippingService;
+
+    @Autowired
+    private ShippingRateEngine shippingRateEngine;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void destinationSelectsTheRateZone() {
+        CartLinesDTO cart = cartOf(TestProducts.create(productService, 10));
+
+        assertThat(shippingService.calculateShippingCost(cart, "10001", null)).isEqualByComparingTo("5.99");
+        assertThat(shippingService.calculateShippingCost(cart, "99501", null)).isEqualByComparingTo("15.99");
+        assertThat(shippingService.calculateShippingCost(cart, null, "hi")).isEqualByComparingTo("15.99");
+        // An explicit state wins over the ZIP, as for tax
+        assertThat(shippingService.calculateShippingCost(cart, "10001", "AK")).isEqualByComparingTo("15.99");
+        assertThat(shippingService.calculateShippingCost(cart, null, null)).isEqualByComparingTo("5.99");
+    }
+
+    @Test
+    void pollingPicksUpAnEditedRateFile() throws IOException {
+        CartLinesDTO cart = cartOf(TestProducts.create(productService, 10));
+        try {
+            rewriteRates("test.2", 2599);
+            shippingRateEngine.reloadIfModified();
+
+            assertThat(shippingRateEngine.getVersion()).isEqualTo("test.2");
+            assertThat(shippingService.calculateShippingCost(cart, "99501", null)).isEqualByComparingTo("25.99");
+        } finally {
+            rewriteRates("test.1", 1599);
+            shippingRateEngine.reloadIfModified();
+        }
+    }
+
+    private static CartLinesDTO cartOf(Product product) {
+        return new CartLinesDTO(new long[] { product.getId() }, new int[] { 1 }, 1);
+    }
+
+    private static void rewriteRates(String version, long remoteCost) throws IOException {
+        FileTime previous = Files.getLastModifiedTime(RATES);
+        Files.writeString(RATES, rates(version, remoteCost));
+        // Make sure the change is visible even on file systems with coarse timestamps
+        Files.setLastModifiedTime(RATES, FileTime.fromMillis(previous.toMillis() + 2_000));
+    }
+
+    private static Path writeRates(String version, long remoteCost) {
+        try {
+            Path file = Files.createTempFile("shipping-rates", ".csv");
+            Files.writeString(file, rates(version, remoteCost));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String rates(String version, long remoteCost) {
+        return "version," + version + "\n"
+            + "zone,remote,AK HI\n"
+            + "rate,*,*,1000,599\n"
+            + "rate,*,*,*,2999\n"
+            + "rate,remote,*,*," + remoteCost + "\n";
+    }
+}
@@ -0,0 +1,88 @@
+package com.nepkart.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnowflakeOrderIdGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 20_000;
+
+    @Test
+    void idsAreUniqueAndIncreasingPerThreadUnderContention() throws Exception {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(7);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    String previous = "";
+                    boolean increasing = true;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        String id = generator.nextOrderId();
+                        increasing &= id.compareTo(previous) > 0;
+                        ids.add(id);
+                        previous = id;
+                    }
+                    return increasing;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+        assertThat(ids).allMatch(id -> id.matches("NEP-0[0-9A-Z]{12}"));
+    }
+
+    @Test
+    void nodesNeverCollide() {
+        SnowflakeOrderIdGenerator first = new SnowflakeOrderIdGenerator(1);
+        SnowflakeOrderIdGenerator second = new SnowflakeOrderIdGenerator(2);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(first.nextOrderId());
+            ids.add(second.nextOrderId());
+        }
+        assertThat(ids).hasSize(100_000);
+    }
+
+    @Test
+    void seedingContinuesAboveIdsIssuedBeforeARestart() {
+        // Ids issued an hour ahead of the current clock, i.e. before the clock was stepped back
+        SnowflakeOrderIdGenerator before = new SnowflakeOrderIdGenerator(3);
+        before.advancePast(before.nextId() + (3_600_000L << 22));
+        String lastIssued = before.nextOrderId();
+
+        SnowflakeOrderIdGenerator restarted = new SnowflakeOrderIdGenerator(3);
+        restarted.advancePast(SnowflakeOrderIdGenerator.decode(lastIssued));
+
+        assertThat(restarted.nextOrderId()).isGreaterThan(lastIssued);
+    }
+
+    @Test
+    void encodingRoundTrips() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(0);
+        long id = generator.nextId();
+        assertThat(SnowflakeOrderIdGenerator.decode("NEP-" + SnowflakeOrderIdGenerator.encode(id))).isEqualTo(id);
+    }
+}
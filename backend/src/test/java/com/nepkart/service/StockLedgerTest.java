@@ -0,0 +1,203 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Product;
+import com.nepkart.model.StockLedgerCheckpoint;
+import com.nepkart.repository.ProductRepository;
+import com.nepkart.repository.StockLedgerCheckpointRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "nepkart.inventory.engine=ledger",
+    "nepkart.inventory.ledger.flush-interval-ms=3600000"
+})
+class StockLedgerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerTest.class);
+
+    private static final int THREADS = 8;
+    private static final int RESERVATIONS_PER_THREAD = 500;
+
+    private static final Path JOURNAL_DIR = createJournalDir();
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("nepkart.inventory.ledger.journal", () -> JOURNAL_DIR.resolve("stock-ledger.log").toString());
+    }
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private StockAlertMonitor stockAlertMonitor;
+
+    @Test
+    void hotSkuNeverOversellsAndFlushesExactNetDelta() throws Exception {
+        Product hot = TestProducts.create(productService, 25);
+
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(THREADS, 200 / THREADS, () -> {
+            if (stockLedger.reserve(Map.of(hot.getId(), 1)).isEmpty()) {
+                accepted.incrementAndGet();
+            }
+        });
+        stockLedger.flush();
+
+        assertThat(accepted.get()).isEqualTo(25);
+        assertThat(stockLedger.getAvailable(hot.getId())).isZero();
+        assertThat(stockOf(hot)).isZero();
+    }
+
+    /**
+     * Hot-SKU benchmark: the reservation step of single-unit checkouts on one product, as a
+     * durable ledger reservation versus a conditional row update in its own transaction.
+     * Logs throughput; asserts only correctness.
+     */
+    @Test
+    void hotSkuBenchmarkLedgerVersusRowUpdates() throws Exception {
+        int total = THREADS * RESERVATIONS_PER_THREAD;
+        Product ledgerSku = TestProducts.create(productService, total);
+        Product rowSku = TestProducts.create(productService, total);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long ledgerNanos = runConcurrently(THREADS, RESERVATIONS_PER_THREAD,
+            () -> stockLedger.reserve(Map.of(ledgerSku.getId(), 1)));
+        long rowNanos = runConcurrently(THREADS, RESERVATIONS_PER_THREAD,
+            () -> tx.executeWithoutResult(status -> productRepository.decrementStockIfAvailable(rowSku.getId(), 1)));
+        stockLedger.flush();
+
+        log.info("Hot SKU, {} threads x {} checkouts: ledger {} ops/s, row updates {} ops/s",
+            THREADS, RESERVATIONS_PER_THREAD, opsPerSecond(total, ledgerNanos), opsPerSecond(total, rowNanos));
+        assertThat(stockOf(ledgerSku)).isZero();
+        assertThat(stockOf(rowSku)).isZero();
+    }
+
+    @Test
+    void replayAppliesEachSegmentOnce() throws Exception {
+        Product product = TestProducts.create(productService, 100);
+        stockLedger.reserve(Map.of(product.getId(), 10));
+        stockLedger.flush();
+        long applied = checkpoint();
+        assertThat(stockOf(product)).isEqualTo(90);
+
+        // A crash after the commit but before the segment file was deleted leaves it behind,
+        // next to a segment that never reached the database
+        stockLedger.shutdown();
+        Files.writeString(JOURNAL_DIR.resolve("stock-ledger.log." + applied), product.getId() + " -10\n");
+        Files.writeString(JOURNAL_DIR.resolve("stock-ledger.log." + (applied + 5)), product.getId() + " -3\n");
+        stockLedger.recover();
+
+        assertThat(stockOf(product)).isEqualTo(87);
+        assertThat(checkpoint()).isEqualTo(applied + 5);
+        assertThat(JOURNAL_DIR.resolve("stock-ledger.log." + applied)).doesNotExist();
+    }
+
+    @Test
+    void resetMarkerDiscardsEarlierDeltasOnReplay() throws Exception {
+        Product product = TestProducts.create(productService, 50);
+        stockLedger.flush();
+        long applied = checkpoint();
+
+        stockLedger.shutdown();
+        Files.writeString(JOURNAL_DIR.resolve("stock-ledger.log." + (applied + 1)),
+            product.getId() + " -4\nR " + product.getId() + "\n" + product.getId() + " -2\n");
+        stockLedger.recover();
+
+        assertThat(stockOf(product)).isEqualTo(48);
+    }
+
+    @Test
+    void viewsReloadedBeforeAFlushShowLedgerCounts() {
+        Product product = TestProducts.create(productService, 10);
+        productService.reserveStock(Map.of(product.getId(), 9));
+
+        productCatalog.invalidate();
+        stockAlertMonitor.rebuild();
+
+        assertThat(stockOf(product)).isEqualTo(10);
+        assertThat(productCatalog.snapshot().findById(product.getId()).orElseThrow().getStock()).isEqualTo(1);
+        assertThat(stockAlertMonitor.getLowStockIds()).contains(product.getId());
+    }
+
+    private long runConcurrently(int threads, int perThread, Runnable action) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        action.run();
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long opsPerSecond(int operations, long nanos) {
+        return operations * 1_000_000_000L / Math.max(1, nanos);
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+
+    private long checkpoint() {
+        return checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID).orElseThrow().getAppliedSegment();
+    }
+
+    private static Path createJournalDir() {
+        try {
+            return Files.createTempDirectory("stock-ledger-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Product;
+import com.nepkart.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StockReservationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentCheckoutsNeverOversellAHotSku() throws Exception {
+        Product hot = TestProducts.create(productService, 25);
+
+        int accepted = reserveConcurrently(200, attempt -> Map.of(hot.getId(), 1));
+
+        assertThat(accepted).isEqualTo(25);
+        assertThat(stockOf(hot)).isZero();
+    }
+
+    @Test
+    void multiLineCartsAreAllOrNothingAndDoNotDeadlock() throws Exception {
+        Product a = TestProducts.create(productService, 30);
+        Product b = TestProducts.create(productService, 10);
+
+        // Every other cart lists its lines in the opposite order
+        int accepted = reserveConcurrently(100, attempt -> attempt % 2 == 0
+            ? Map.of(a.getId(), 2, b.getId(), 1)
+            : Map.of(b.getId(), 1, a.getId(), 2));
+
+        assertThat(accepted).isEqualTo(10);
+        assertThat(stockOf(a)).isEqualTo(30 - 2 * accepted);
+        assertThat(stockOf(b)).isZero();
+    }
+
+    private int reserveConcurrently(int attempts, IntFunction<Map<Long, Integer>> carts) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                Map<Long, Integer> cart = carts.apply(i);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        productService.reserveStock(cart);
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    accepted++;
+                }
+            }
+            return accepted;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+}
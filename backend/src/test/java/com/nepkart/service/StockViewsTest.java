@@ -0,0 +1,82 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory catalog, facets, stock alerts and suggestions after committed reservations.
+ */
+@SpringBootTest
+class StockViewsTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private StockAlertMonitor stockAlertMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reservationsPublishCommittedLevelsToEveryView() {
+        Product product = TestProducts.create(productService, null, "Category " + UUID.randomUUID(), 10, 3);
+        productCatalog.snapshot();
+
+        reserve(product, 8);
+
+        assertViewsShow(product, 2, true);
+        assertThat(stockAlertMonitor.getLowStockIds()).contains(product.getId());
+
+        reserve(product, 2);
+
+        assertViewsShow(product, 0, false);
+        assertThat(stockAlertMonitor.getOutOfStockIds()).contains(product.getId());
+    }
+
+    @Test
+    void catalogReloadedBeforeThePublicationIsNotAdjustedTwice() {
+        Product product = TestProducts.create(productService, null, "Category " + UUID.randomUUID(), 10, 1);
+        productCatalog.snapshot();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            // Runs after commit but before the reservation's own publication, like a concurrent reader
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    productCatalog.invalidate();
+                    productCatalog.snapshot();
+                }
+            });
+            productService.reserveStock(Map.of(product.getId(), 3));
+        });
+
+        assertViewsShow(product, 7, true);
+    }
+
+    private void assertViewsShow(Product product, int stock, boolean inStock) {
+        assertThat(productCatalog.snapshot().findById(product.getId()).orElseThrow().getStock()).isEqualTo(stock);
+        assertThat(productService.getFacets(product.getCategory(), null, true).getTotal()).isEqualTo(inStock ? 1 : 0);
+        assertThat(productService.suggest(product.getSku(), 1).get(0).getStock()).isEqualTo(stock);
+    }
+
+    private void reserve(Product product, int quantity) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            productService.reserveStock(Map.of(product.getId(), quantity)));
+    }
+}
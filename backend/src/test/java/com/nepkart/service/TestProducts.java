@@ -0,0 +1,29 @@
+package com.nepkart.service;
+
+import com.nepkart.model.Product;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Product fixture shared by the service tests. Products are created through
+ * {@link ProductService}, so the in-memory views see them too; each gets a unique SKU.
+ */
+final class TestProducts {
+
+    private TestProducts() {
+    }
+
+    static Product create(ProductService productService, int stock) {
+        return create(productService, null, "Food", stock, 1);
+    }
+
+    /**
+     * @param name the product name, or {@code null} for one derived from the SKU
+     */
+    static Product create(ProductService productService, String name, String category, int stock, int lowStockThreshold) {
+        String sku = "TEST-" + UUID.randomUUID();
+        return productService.createProduct(new Product(sku, name != null ? name : "Test " + sku, category,
+            new BigDecimal("5.00"), stock, lowStockThreshold, new BigDecimal("0.50"), "Kathmandu, Nepal"));
+    }
+}
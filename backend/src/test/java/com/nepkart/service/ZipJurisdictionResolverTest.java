@@ -0,0 +1,173 @@
+package com.nepkart.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ZipJurisdictionResolverTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ZipJurisdictionResolverTest.class);
+
+    private static final String TABLE = "tax/zip3-jurisdictions.csv";
+
+    private static final int BENCHMARK_LOOKUPS = 1_000_000;
+
+    private ZipJurisdictionResolver resolver;
+
+    @BeforeEach
+    void loadTable() throws IOException {
+        resolver = load(new ClassPathResource(TABLE));
+    }
+
+    @Test
+    void everyPrefixResolvesToItsRangeInTheTable() throws IOException {
+        List<String[]> ranges = readRanges();
+
+        for (int prefix = 0; prefix < 1000; prefix++) {
+            String expected = linearLookup(ranges, prefix);
+            String digits = String.format("%03d", prefix);
+
+            assertThat(resolver.resolveState(digits)).as(digits).isEqualTo(expected);
+            assertThat(resolver.resolveState(digits + "42")).as(digits + "42").isEqualTo(expected);
+            assertThat(resolver.resolveState("  " + digits + "42-1234")).as(digits + "42-1234").isEqualTo(expected);
+            assertThat(resolver.resolveState(new StringBuilder(digits).append("99"))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void knownZipsResolveToTheirState() {
+        assertThat(resolver.resolveState("10001")).isEqualTo("NY");
+        assertThat(resolver.resolveState("06103")).isEqualTo("CT");
+        assertThat(resolver.resolveState("07102")).isEqualTo("NJ");
+        assertThat(resolver.resolveState("90210")).isEqualTo("CA");
+        assertThat(resolver.resolveState("96813")).isEqualTo("HI");
+        assertThat(resolver.resolveState("99501")).isEqualTo("AK");
+    }
+
+    @Test
+    void malformedZipsResolveToNoJurisdiction() {
+        for (String zip : Arrays.asList(null, "", "  ", "1", "12", " 12", "1a345", "abcde", "-1000")) {
+            assertThat(resolver.resolveState(zip)).as(String.valueOf(zip)).isNull();
+        }
+    }
+
+    @Test
+    void overlappingRangesAreRejectedAtLoad() {
+        String table = "version,test\n100,149,NY\n140,150,PA\n";
+
+        assertThatThrownBy(() -> load(new ByteArrayResource(table.getBytes(StandardCharsets.UTF_8))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("assigned twice");
+    }
+
+    @Test
+    void tableWithoutVersionIsRejected() {
+        String table = "100,149,NY\n";
+
+        assertThatThrownBy(() -> load(new ByteArrayResource(table.getBytes(StandardCharsets.UTF_8))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("no version");
+    }
+
+    /**
+     * Lookup benchmark: time and bytes allocated per resolveState call on random 5-digit
+     * ZIPs, against scanning the parsed range list as the reference lookup does.
+     * Logs the figures; asserts only that both give the same answers.
+     */
+    @Test
+    void lookupBenchmark() throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+        List<String[]> ranges = readRanges();
+        Random random = new Random(20);
+        String[] zips = new String[4096];
+        int[] prefixes = new int[zips.length];
+        for (int i = 0; i < zips.length; i++) {
+            int zip = random.nextInt(100_000);
+            zips[i] = String.format("%05d", zip);
+            prefixes[i] = zip / 100;
+        }
+
+        int resolved = 0;
+        int scanned = 0;
+        long resolveNanos = 0;
+        long resolveBytes = 0;
+        long scanNanos = 0;
+        // First round warms up; the second is measured
+        for (int round = 0; round < 2; round++) {
+            resolved = 0;
+            long bytesBefore = allocations.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < BENCHMARK_LOOKUPS; i++) {
+                if (resolver.resolveState(zips[i & 4095]) != null) {
+                    resolved++;
+                }
+            }
+            resolveNanos = System.nanoTime() - start;
+            resolveBytes = allocations.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+            scanned = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < BENCHMARK_LOOKUPS; i++) {
+                if (linearLookup(ranges, prefixes[i & 4095]) != null) {
+                    scanned++;
+                }
+            }
+            scanNanos = System.nanoTime() - start;
+        }
+
+        log.info("ZIP lookup over {} ranges: resolveState {} ns and {} bytes per lookup, range scan {} ns per lookup",
+            ranges.size(), resolveNanos / BENCHMARK_LOOKUPS, resolveBytes / BENCHMARK_LOOKUPS,
+            scanNanos / BENCHMARK_LOOKUPS);
+        assertThat(resolved).isEqualTo(scanned);
+    }
+
+    private static ZipJurisdictionResolver load(Resource table) throws IOException {
+        ZipJurisdictionResolver resolver = new ZipJurisdictionResolver();
+        ReflectionTestUtils.setField(resolver, "tableResource", table);
+        resolver.load();
+        return resolver;
+    }
+
+    // Reference answer: the first range listing the prefix, found by scanning the file
+    private static String linearLookup(List<String[]> ranges, int prefix) {
+        for (String[] range : ranges) {
+            if (Integer.parseInt(range[0]) <= prefix && prefix <= Integer.parseInt(range[1])) {
+                return range[2];
+            }
+        }
+        return null;
+    }
+
+    private static List<String[]> readRanges() throws IOException {
+        List<String[]> ranges = new ArrayList<>();
+        String content = new ClassPathResource(TABLE).getContentAsString(StandardCharsets.UTF_8);
+        for (String line : content.split("\n")) {
+            String[] parts = line.trim().split(",");
+            if (parts.length == 3 && !line.startsWith("#")) {
+                ranges.add(new String[] { parts[0].trim(), parts[1].trim(), parts[2].trim().toUpperCase() });
+            }
+        }
+        return ranges;
+    }
+}
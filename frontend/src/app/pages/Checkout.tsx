@@ -1,4 +1,4 @@
-import { useEffect, useMemo, useState } from "react";
+import { useEffect, useState } from "react";
 import { useNavigate } from "react-router";
 import { useCart } from "@/app/context/CartContext";
 import { CheckCircle } from "lucide-react";
@@ -65,7 +65,7 @@ export default function Checkout() {
   const [isProcessing, setIsProcessing] = useState(false);
   const [orderComplete, setOrderComplete] = useState(false);
   const [orderId, setOrderId] = useState<string | null>(null);
-  const [taxRate, setTaxRate] = useState(0);
+  const [quote, setQuote] = useState<{ tax: number; total: number } | null>(null);
   const [shippingCost, setShippingCost] = useState<number>(0);
 
   const [formData, setFormData] = useState({
@@ -102,69 +102,49 @@ export default function Checkout() {
     return null;
   }
 
-  const taxAmount = useMemo(() => Number((totalPrice * taxRate).toFixed(2)), [taxRate, totalPrice]);
-  const grandTotal = useMemo(() => totalPrice + shippingCost + taxAmount, [shippingCost, taxAmount, totalPrice]);
+  const taxAmount = quote?.tax ?? 0;
+  const grandTotal = quote?.total ?? totalPrice + shippingCost + taxAmount;
 
   useEffect(() => {
+    // price the cart on the backend (same rules as checkout, served from the quote cache)
     const zip = formData.zipCode.trim();
     const state = formData.state.trim();
-    
-    // If no ZIP or state, reset tax
-    if (zip.length < 5 && state.length === 0) {
-      setTaxRate(0);
-      return;
-    }
-    
     let cancelled = false;
     (async () => {
       try {
-        // Use state if available (more accurate), otherwise use ZIP
-        const response = state 
-          ? await api.tax.rate(undefined, state)
-          : await api.tax.rate(zip);
-        
-        // Handle both number and string responses from backend
-        let rateValue: number;
-        if (typeof response === 'object' && response !== null) {
-          const rate = (response as any).rate;
-          rateValue = typeof rate === 'string' ? parseFloat(rate) : Number(rate);
-        } else {
-          rateValue = Number(response);
+        const productQuantities: Record<number, number> = {};
+        cart.forEach((i) => {
+          productQuantities[i.id] = i.quantity;
+        });
+        const [r] = await api.quotes.quote([{
+          reference: "checkout",
+          productQuantities,
+          zipCode: zip.length >= 5 ? zip : undefined,
+          state: state || undefined,
+        }]);
+        if (!r || r.error) {
+          throw new Error(r?.error ?? "No quote returned");
         }
-        
+        const amount = (value: number | string | undefined) => {
+          const n = Number(value ?? 0);
+          return Number.isFinite(n) ? n : 0;
+        };
         if (!cancelled) {
-          const finalRate = Number.isFinite(rateValue) && rateValue >= 0 ? rateValue : 0;
-          setTaxRate(finalRate);
-          const source = state ? `State ${state}` : `ZIP ${zip}`;
-          console.log(`Tax rate updated for ${source}: ${(finalRate * 100).toFixed(2)}%`);
+          setShippingCost(amount(r.shippingCost));
+          setQuote({ tax: amount(r.tax), total: amount(r.total) });
         }
       } catch (e) {
-        console.error("Tax rate fetch error:", e);
-        if (!cancelled) setTaxRate(0);
-      }
-    })();
-    return () => {
-      cancelled = true;
-    };
-  }, [formData.zipCode, formData.state]);
-
-  useEffect(() => {
-    // calculate shipping from backend (weight-based)
-    let cancelled = false;
-    (async () => {
-      try {
-        const items = cart.map((i) => ({ quantity: i.quantity, weight: i.weight }));
-        const r = await api.shipping.calculate(items);
-        const cost = Number((r as any).shippingCost ?? 0);
-        if (!cancelled) setShippingCost(Number.isFinite(cost) ? cost : 0);
-      } catch {
-        if (!cancelled) setShippingCost(0);
+        console.error("Quote fetch error:", e);
+        if (!cancelled) {
+          setShippingCost(0);
+          setQuote(null);
+        }
       }
     })();
     return () => {
       cancelled = true;
     };
-  }, [cart]);
+  }, [cart, formData.zipCode, formData.state]);
 
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
@@ -545,9 +525,9 @@ export default function Checkout() {
                   pattern="[0-9]{5}"
                   className="w-full px-4 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-orange-500 focus:border-transparent"
                 />
-                {formData.zipCode.length >= 5 && taxRate > 0 && (
+                {formData.zipCode.length >= 5 && taxAmount > 0 && (
                   <p className="text-xs text-green-600 mt-1">
-                    Tax rate: {(taxRate * 100).toFixed(2)}%
+                    Estimated tax: ${taxAmount.toFixed(2)}
                   </p>
                 )}
               </div>
@@ -784,7 +764,7 @@ export default function Checkout() {
                   <span>${shippingCost.toFixed(2)}</span>
                 </div>
                 <div className="flex justify-between text-gray-600 mt-2">
-                  <span>Tax ({taxRate > 0 ? `${(taxRate * 100).toFixed(2)}%` : "by ZIP"})</span>
+                  <span>Tax{taxAmount > 0 ? "" : " (by ZIP)"}</span>
                   <span>${taxAmount.toFixed(2)}</span>
                 </div>
               </div>
@@ -124,10 +124,29 @@ export const api = {
     },
   },
   shipping: {
-    calculate: (items: Array<{ quantity: number; weight: number }>) =>
-      http<{ shippingCost: number | string }>(`/shipping/calculate`, {
+    calculate: (items: Array<{ productId: number; quantity: number }>, zip?: string, state?: string) => {
+      const qs = new URLSearchParams();
+      if (zip) qs.set("zip", zip);
+      if (state) qs.set("state", state);
+      const suffix = qs.toString() ? `?${qs.toString()}` : "";
+      return http<{ shippingCost: number | string }>(`/shipping/calculate${suffix}`, {
         method: "POST",
         body: JSON.stringify(items),
+      });
+    },
+  },
+  quotes: {
+    quote: (carts: Array<{ reference?: string; productQuantities: Record<number, number>; zipCode?: string; state?: string }>) =>
+      http<Array<{
+        reference?: string;
+        subtotal?: number | string;
+        shippingCost?: number | string;
+        tax?: number | string;
+        total?: number | string;
+        error?: string;
+      }>>(`/quotes`, {
+        method: "POST",
+        body: JSON.stringify({ carts }),
       }),
   },
   orders: {